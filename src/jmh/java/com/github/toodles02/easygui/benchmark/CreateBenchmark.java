@@ -0,0 +1,67 @@
+package com.github.toodles02.easygui.benchmark;
+
+import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import com.github.toodles02.easygui.api.manager.InventoryManager;
+import com.github.toodles02.easygui.stub.StubServer;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link VanillaInventory#create()} with an empty and a filled chest, registered or not.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateBenchmark {
+
+    @Param({"0", "27"})
+    public int filled;
+
+    @Param({"false", "true"})
+    public boolean registered;
+
+    private final NamespacedKey key = new NamespacedKey("benchmark", "create");
+    private VanillaInventory menu;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        menu = new VanillaInventory(InventoryType.CHEST, key);
+        for (int i = 0; i < filled; i++) {
+            menu.setSlot(i, new ItemStack(i % 2 == 0 ? Material.STONE : Material.DIRT));
+        }
+        if (registered) {
+            menu.register();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        InventoryManager.unregister(key);
+    }
+
+    @Benchmark
+    public VanillaInventory create() {
+        return menu.create();
+    }
+
+}
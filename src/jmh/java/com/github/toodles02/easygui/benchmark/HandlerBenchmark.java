@@ -0,0 +1,89 @@
+package com.github.toodles02.easygui.benchmark;
+
+import com.github.toodles02.easygui.api.inventory.InventoryHandler;
+import com.github.toodles02.easygui.stub.StubHandler;
+import com.github.toodles02.easygui.stub.StubInventory;
+import com.github.toodles02.easygui.stub.StubPlayer;
+import com.github.toodles02.easygui.stub.StubServer;
+import com.github.toodles02.easygui.stub.StubView;
+import org.bukkit.Material;
+import org.bukkit.entity.Item;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryCreativeEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryPickupItemEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link InventoryHandler#handle(Event)} for every event type, with one handler per type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlerBenchmark {
+
+    @Param({"open", "close", "click", "drag", "move", "creative", "pickup"})
+    public String type;
+
+    private final InventoryHandler handler = new InventoryHandler();
+
+    private Event event;
+    private long handled = 0;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+        for (Class<? extends Event> eClass : InventoryHandler.getEventTypes()) {
+            handler.addHandler(eClass, e -> handled++, EventPriority.NORMAL);
+        }
+
+        Inventory inventory = new StubInventory(InventoryType.CHEST, 27).getInventory();
+        StubView view = new StubPlayer(UUID.randomUUID(), "player").open(inventory);
+        ItemStack item = new ItemStack(Material.STONE);
+
+        event = switch (type) {
+            case "open" -> new InventoryOpenEvent(view);
+            case "close" -> new InventoryCloseEvent(view);
+            case "click" -> new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, 13, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+            case "drag" -> new InventoryDragEvent(view, null, item, false, Map.of(12, item, 13, item));
+            case "move" -> new InventoryMoveItemEvent(new StubInventory(InventoryType.HOPPER, 5).getInventory(), item, inventory, true);
+            case "creative" -> new InventoryCreativeEvent(view, InventoryType.SlotType.CONTAINER, 13, item);
+            case "pickup" -> new InventoryPickupItemEvent(inventory, StubHandler.empty(Item.class));
+            default -> throw new IllegalArgumentException("invalid event type");
+        };
+    }
+
+    @Benchmark
+    public long handle() {
+        handler.handle(event);
+        return handled;
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.github.toodles02.easygui.benchmark;
+
+import com.github.toodles02.easygui.api.event.InventoryListener;
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import com.github.toodles02.easygui.api.manager.InventoryManager;
+import com.github.toodles02.easygui.stub.StubInventory;
+import com.github.toodles02.easygui.stub.StubPlayer;
+import com.github.toodles02.easygui.stub.StubServer;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks routing events through the {@link InventoryListener} with 10, 100 and 1000 registered inventories.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int menus;
+
+    private final InventoryListener listener = new InventoryListener();
+    private final List<NamespacedKey> keys = new ArrayList<>();
+
+    private InventoryClickEvent[] clicks;
+    private InventoryMoveItemEvent hopperMove;
+    private int next = 0;
+    private long handled = 0;
+
+    @Setup
+    public void setup() {
+        StubServer.install();
+
+        clicks = new InventoryClickEvent[menus];
+        for (int i = 0; i < menus; i++) {
+            NamespacedKey key = new NamespacedKey("benchmark", "menu" + i);
+            VanillaInventory menu = new VanillaInventory(InventoryType.CHEST, key)
+                    .onClick(event -> handled++)
+                    .create()
+                    .register();
+            keys.add(key);
+
+            StubPlayer player = new StubPlayer(UUID.randomUUID(), "player" + i);
+            clicks[i] = new InventoryClickEvent(player.open(menu.getInventory()), InventoryType.SlotType.CONTAINER,
+                    13, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+        }
+
+        hopperMove = new InventoryMoveItemEvent(new StubInventory(InventoryType.HOPPER, 5).getInventory(),
+                new ItemStack(Material.STONE), new StubInventory(InventoryType.CHEST, 27).getInventory(), true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (NamespacedKey key : keys) {
+            InventoryManager.unregister(key);
+        }
+        keys.clear();
+    }
+
+    /**
+     * Routes a click to the handler of a registered inventory, cycling through all of them.
+     */
+    @Benchmark
+    public long click() {
+        listener.onClick(clicks[next]);
+        next = next + 1 == menus ? 0 : next + 1;
+        return handled;
+    }
+
+    /**
+     * Looks up the registered inventory of a bukkit inventory, cycling through all of them.
+     */
+    @Benchmark
+    public CustomInventory lookup() {
+        CustomInventory found = InventoryManager.get(clicks[next].getInventory());
+        next = next + 1 == menus ? 0 : next + 1;
+        return found;
+    }
+
+    /**
+     * Rejects a hopper moving items between inventories EasyGUI does not own.
+     */
+    @Benchmark
+    public void unownedMove() {
+        listener.onEntityMoveItem(hopperMove);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.github.toodles02.easygui.benchmark;
+
+import com.github.toodles02.easygui.api.inventory.InventoryShape;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks mapping an {@link InventoryShape} and reading its items for 1 to 6 rows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShapeBenchmark {
+
+    private static final String[] rowShapes = {"XXXXXXXXX", "XabcdefgX", "XhijklmnX", "XopqrstuX", "XvwxyzABX", "XXXXCXXXX"};
+    private static final String letters = "XabcdefghijklmnopqrstuvwxyzABC";
+    private static final Material[] materials = {Material.STONE, Material.DIRT, Material.GLASS, Material.OAK_PLANKS};
+
+    @Param({"1", "2", "3", "4", "5", "6"})
+    public int rows;
+
+    private InventoryShape shape;
+
+    @Setup
+    public void setup() {
+        shape = map();
+        shape.getItems();
+    }
+
+    /**
+     * Sets the rows of a new shape and maps all of its letters.
+     */
+    @Benchmark
+    public InventoryShape map() {
+        InventoryShape shape = new InventoryShape(rows);
+        for (int row = 1; row <= rows; row++) {
+            shape.setShape(rowShapes[row - 1], row);
+        }
+        String full = shape.getShape();
+        for (int i = 0; i < letters.length(); i++) {
+            char letter = letters.charAt(i);
+            if (full.indexOf(letter) >= 0) {
+                shape.map(letter, new ItemStack(materials[i % materials.length]));
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * Reads the items of a shape which was compiled before.
+     */
+    @Benchmark
+    public Map<Integer, ItemStack> getItems() {
+        return shape.getItems();
+    }
+
+    /**
+     * Maps a new shape and reads its items, compiling it on the way.
+     */
+    @Benchmark
+    public Map<Integer, ItemStack> mapAndGetItems() {
+        return map().getItems();
+    }
+
+}
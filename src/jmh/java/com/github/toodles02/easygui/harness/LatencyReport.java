@@ -0,0 +1,107 @@
+package com.github.toodles02.easygui.harness;
+
+import com.github.toodles02.easygui.api.metrics.LatencyHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The latencies per event type and the allocations of a harness run, printed once it finished.
+ * <p>
+ * Allocations are read from the allocation counter of the thread that started the report, which must be the thread
+ * firing the events.
+ */
+final class LatencyReport {
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+
+    private long events = 0;
+    private long errors = 0;
+    private long started = 0;
+    private long allocatedBefore = 0;
+    private long elapsed = 0;
+    private long allocated = 0;
+
+    /**
+     * Creates a {@link LatencyReport} listing the provided event types in order.
+     *
+     * @param types The event types.
+     */
+    LatencyReport(String... types) {
+        for (String type : types) {
+            latencies.put(type, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Starts measuring the elapsed time and the allocations.
+     */
+    void start() {
+        allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        started = System.nanoTime();
+    }
+
+    /**
+     * Stops measuring the elapsed time and the allocations.
+     */
+    void stop() {
+        elapsed = System.nanoTime() - started;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+    }
+
+    /**
+     * Records the latency of an event fired at the provided time.
+     *
+     * @param type The event type.
+     * @param start The time the event was fired at, from {@link System#nanoTime()}.
+     */
+    void record(String type, long start) {
+        latencies.computeIfAbsent(type, t -> new LatencyHistogram()).record(System.nanoTime() - start);
+        events++;
+    }
+
+    /**
+     * Counts an event whose handlers threw, printing the first one.
+     *
+     * @param exception The exception thrown.
+     */
+    void error(RuntimeException exception) {
+        if (errors++ == 0) {
+            exception.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the amount of events whose handlers threw.
+     * @return The amount of errors.
+     */
+    long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Prints the throughput, the allocation rate and the latencies per event type.
+     */
+    void print() {
+        double seconds = elapsed / 1_000_000_000d;
+        System.out.printf("Throughput: %d events in %.1fs, %.0f events/s, %d errors%n", events, seconds, events / seconds, errors);
+        System.out.printf("Allocation: %.1f MB/s, %.0f bytes/event%n",
+                allocated / seconds / (1024 * 1024), events == 0 ? 0d : (double) allocated / events);
+
+        System.out.println("Latency (percentiles are upper bounds of power of two buckets):");
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram latency = entry.getValue();
+            System.out.printf("  %-9s %9d events, mean %s, p50 %s, p90 %s, p99 %s, p99.9 %s, max %s%n", entry.getKey(),
+                    latency.getCount(), millis(latency.getMean()), millis(latency.getPercentile(0.5)),
+                    millis(latency.getPercentile(0.9)), millis(latency.getPercentile(0.99)),
+                    millis(latency.getPercentile(0.999)), millis(latency.getMax()));
+        }
+    }
+
+    static String millis(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000d);
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.github.toodles02.easygui.harness;
+
+import com.github.toodles02.easygui.api.event.InventoryListener;
+import com.github.toodles02.easygui.api.inventory.ClickLimiter;
+import com.github.toodles02.easygui.api.inventory.InventoryShape;
+import com.github.toodles02.easygui.api.inventory.ShapedInventory;
+import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import com.github.toodles02.easygui.api.manager.InventoryManager;
+import com.github.toodles02.easygui.stub.StubPlayer;
+import com.github.toodles02.easygui.stub.StubServer;
+import com.github.toodles02.easygui.stub.StubView;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A headless load simulation, driving the {@link InventoryListener} with thousands of simulated players.
+ * <p>
+ * Every player repeatedly opens one of the registered menus, clicks and drags in it a few times and closes it again.
+ * All events are fired from a single thread standing in for the main thread, either as fast as possible or at a fixed
+ * rate spread over 20 ticks per second. The simulation prints a {@link LatencyReport} and exits with 1 if a handler
+ * threw.
+ * <p>
+ * Menu handlers must not go through the scheduler, it needs a real plugin. Run it with {@code ./gradlew loadTest}.
+ */
+public final class LoadSimulation {
+
+    private static final long tickNanos = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final int players;
+    private final int menus;
+    private final int rate;
+    private final int seconds;
+    private final Random random;
+
+    private final InventoryListener listener = new InventoryListener();
+    private final List<VanillaInventory> registered = new ArrayList<>();
+    private final List<Session> sessions = new ArrayList<>();
+    private final LatencyReport report = new LatencyReport("open", "click", "drag", "close");
+
+    private long overruns = 0;
+    private long maxTick = 0;
+
+    private LoadSimulation(Map<String, String> options) {
+        this.players = Integer.parseInt(options.getOrDefault("players", "2000"));
+        this.menus = Integer.parseInt(options.getOrDefault("menus", "50"));
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "0"));
+        this.seconds = Integer.parseInt(options.getOrDefault("seconds", "10"));
+        this.random = new Random(Long.parseLong(options.getOrDefault("seed", "1")));
+    }
+
+    /**
+     * Runs the simulation.
+     *
+     * @param args Options as {@code --name=value}: {@code players} (2000), {@code menus} (50), {@code rate} in events
+     *             per second (0, as fast as possible), {@code seconds} (10) and {@code seed} (1).
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (!arg.startsWith("--") || split < 0) {
+                throw new IllegalArgumentException("invalid option " + arg);
+            }
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        StubServer.install();
+        LoadSimulation simulation = new LoadSimulation(options);
+        simulation.setup();
+        simulation.run();
+        System.exit(simulation.report.getErrors() > 0 ? 1 : 0);
+    }
+
+    private void setup() {
+        ItemStack border = new ItemStack(Material.BLACK_STAINED_GLASS_PANE);
+        for (int i = 0; i < menus; i++) {
+            NamespacedKey key = new NamespacedKey("loadtest", "menu" + i);
+            VanillaInventory menu;
+            switch (i % 3) {
+                case 0 -> {
+                    menu = new VanillaInventory(InventoryType.CHEST, key)
+                            .onClick(event -> event.setCancelled(true))
+                            .onDrag(event -> event.setCancelled(true));
+                    for (int slot = 0; slot < 54; slot += 9) {
+                        menu.setSlot(slot, border).onClick(slot, event -> event.getWhoClicked().getUniqueId());
+                    }
+                    menu.create(6);
+                }
+                case 1 -> {
+                    InventoryShape shape = new InventoryShape(3);
+                    shape.setShape("XXXXXXXXX", 1);
+                    shape.setShape("XaXbXcXdX", 2);
+                    shape.setShape("XXXXeXXXX", 3);
+                    shape.map('X', border);
+                    for (char letter : "abcde".toCharArray()) {
+                        shape.map(letter, new ItemStack(Material.STONE));
+                    }
+
+                    ShapedInventory shaped = new ShapedInventory(InventoryType.CHEST, key);
+                    shaped.setShape(shape);
+                    for (char letter : "abcde".toCharArray()) {
+                        shaped.onClick(letter, event -> event.setCancelled(true));
+                    }
+                    shaped.onOpen(event -> event.getPlayer().getName());
+                    shaped.onClose(event -> event.getPlayer().getName());
+                    menu = shaped.create(3);
+                }
+                default -> {
+                    menu = new VanillaInventory(InventoryType.CHEST, key)
+                            .setClickLimit(8, 4)
+                            .onClick(event -> event.setCancelled(event.getRawSlot() < 27));
+                    menu.create();
+                }
+            }
+            menu.register();
+            registered.add(menu);
+        }
+
+        for (int i = 0; i < players; i++) {
+            sessions.add(new Session(new StubPlayer(new UUID(random.nextLong(), random.nextLong()), "player" + i)));
+        }
+    }
+
+    private void run() {
+        report.start();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        if (rate <= 0) {
+            while (System.nanoTime() < end) {
+                for (int i = 0; i < 1000; i++) {
+                    step();
+                }
+            }
+        } else {
+            // spread the events over the ticks, carrying the remainder so the rate is met exactly
+            long due = 0;
+            long tick = start;
+            while (tick < end) {
+                due += rate;
+                int count = (int) (due / 20);
+                due -= count * 20L;
+
+                long tickStart = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    step();
+                }
+                long tickTime = System.nanoTime() - tickStart;
+                maxTick = Math.max(maxTick, tickTime);
+                if (tickTime > tickNanos) {
+                    overruns++;
+                }
+
+                tick += tickNanos;
+                long sleep = tick - System.nanoTime();
+                if (sleep > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(sleep);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+
+        report.stop();
+        System.out.printf("EasyGUI load simulation: %d players, %d menus, %s%n",
+                players, menus, rate > 0 ? rate + " events/s" : "unthrottled");
+        if (rate > 0) {
+            System.out.printf("Ticks: %d over 50ms, slowest %s%n", overruns, LatencyReport.millis(maxTick));
+        }
+        report.print();
+
+        for (Session session : sessions) {
+            ClickLimiter.forgetAll(session.player.getPlayer().getUniqueId());
+        }
+        for (VanillaInventory menu : registered) {
+            InventoryManager.unregister(menu.getKey());
+        }
+    }
+
+    /**
+     * Fires the next event of a random player.
+     */
+    private void step() {
+        Session session = sessions.get(random.nextInt(sessions.size()));
+        StubView view = session.player.getView();
+        try {
+            if (view == null) {
+                open(session);
+            } else if (session.remaining-- > 0) {
+                if (random.nextInt(5) == 0) {
+                    drag(view);
+                } else {
+                    click(view);
+                }
+            } else {
+                close(session, view);
+            }
+        } catch (RuntimeException e) {
+            report.error(e);
+        }
+    }
+
+    private void open(Session session) {
+        VanillaInventory menu = registered.get(random.nextInt(registered.size()));
+        InventoryOpenEvent event = new InventoryOpenEvent(session.player.open(menu.getInventory()));
+        long start = System.nanoTime();
+        listener.onOpen(event);
+        report.record("open", start);
+
+        if (event.isCancelled()) {
+            session.player.close();
+        }
+        session.remaining = 1 + random.nextInt(8);
+    }
+
+    private void click(StubView view) {
+        int rawSlot = random.nextInt(view.getTopInventory().getSize() + 36);
+        InventoryType.SlotType slotType = rawSlot < view.getTopInventory().getSize() ? InventoryType.SlotType.CONTAINER : InventoryType.SlotType.QUICKBAR;
+        ClickType click = random.nextBoolean() ? ClickType.LEFT : ClickType.SHIFT_LEFT;
+        InventoryClickEvent event = new InventoryClickEvent(view, slotType, rawSlot, click, InventoryAction.PICKUP_ALL);
+        long start = System.nanoTime();
+        listener.onClick(event);
+        report.record("click", start);
+    }
+
+    private void drag(StubView view) {
+        ItemStack cursor = new ItemStack(Material.STONE);
+        Map<Integer, ItemStack> slots = new HashMap<>();
+        int count = 2 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            slots.put(random.nextInt(view.getTopInventory().getSize()), cursor);
+        }
+        InventoryDragEvent event = new InventoryDragEvent(view, null, cursor, false, slots);
+        long start = System.nanoTime();
+        listener.onDrag(event);
+        report.record("drag", start);
+    }
+
+    private void close(Session session, StubView view) {
+        InventoryCloseEvent event = new InventoryCloseEvent(view);
+        long start = System.nanoTime();
+        listener.onClose(event);
+        report.record("close", start);
+        session.player.close();
+    }
+
+    /**
+     * A simulated player and the amount of actions left before they close their menu.
+     */
+    private static final class Session {
+
+        private final StubPlayer player;
+        private int remaining = 0;
+
+        private Session(StubPlayer player) {
+            this.player = player;
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.github.toodles02.easygui.harness;
+
+import com.github.toodles02.easygui.api.event.InventoryListener;
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import com.github.toodles02.easygui.api.manager.InventoryManager;
+import com.github.toodles02.easygui.api.trace.TraceEvent;
+import com.github.toodles02.easygui.api.trace.TraceReader;
+import com.github.toodles02.easygui.stub.StubHandler;
+import com.github.toodles02.easygui.stub.StubInventory;
+import com.github.toodles02.easygui.stub.StubPlayer;
+import com.github.toodles02.easygui.stub.StubServer;
+import com.github.toodles02.easygui.stub.StubView;
+import org.bukkit.Material;
+import org.bukkit.entity.Item;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryCreativeEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryPickupItemEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays traces of the {@link com.github.toodles02.easygui.api.trace.TraceRecorder} through the
+ * {@link InventoryListener} against the stand-in server, at the recorded pace or as fast as possible.
+ * <p>
+ * Events are routed to the inventory registered under the recorded key. Keys without a registered inventory get a
+ * stand-in chest with empty handlers, so a trace can be replayed on its own, or against the real menus by registering
+ * them before calling {@link #replay(List, boolean)}. Each file starts with fresh players, as players are numbered per
+ * file. Run it with {@code ./gradlew replayTrace -PreplayTrace.trace=<file or directory>}.
+ */
+public final class TraceReplayer {
+
+    private final InventoryListener listener = new InventoryListener();
+    private final Inventory hopper = new StubInventory(InventoryType.HOPPER, 5).getInventory();
+    private final ItemStack item = new ItemStack(Material.STONE);
+    private final Map<Integer, StubPlayer> players = new HashMap<>();
+    private final LatencyReport report = new LatencyReport();
+
+    /**
+     * Replays a trace file, or every trace file of a directory.
+     *
+     * @param args Options as {@code --name=value}: {@code trace}, the trace file or directory, and {@code speed},
+     *             {@code real} to keep the recorded pace or {@code max} (default) to replay as fast as possible.
+     * @throws IOException If the trace can not be read.
+     */
+    public static void main(String[] args) throws IOException {
+        Path trace = null;
+        boolean realTime = false;
+        for (String arg : args) {
+            if (arg.startsWith("--trace=")) {
+                trace = Path.of(arg.substring("--trace=".length()));
+            } else if (arg.startsWith("--speed=")) {
+                realTime = arg.substring("--speed=".length()).equalsIgnoreCase("real");
+            } else {
+                throw new IllegalArgumentException("invalid option " + arg);
+            }
+        }
+        if (trace == null) {
+            throw new IllegalArgumentException("missing option --trace");
+        }
+
+        StubServer.install();
+        TraceReplayer replayer = new TraceReplayer();
+        replayer.replay(Files.isDirectory(trace) ? TraceReader.list(trace) : List.of(trace), realTime);
+        replayer.report.print();
+        System.exit(replayer.report.getErrors() > 0 ? 1 : 0);
+    }
+
+    /**
+     * Replays the provided trace files in order.
+     *
+     * @param files The trace files.
+     * @param realTime True to keep the recorded pace, false to replay as fast as possible.
+     * @throws IOException If a trace file can not be read.
+     */
+    public void replay(List<Path> files, boolean realTime) throws IOException {
+        report.start();
+        for (Path file : files) {
+            players.clear();
+            try (TraceReader reader = new TraceReader(file)) {
+                long start = System.nanoTime();
+                TraceEvent event;
+                while ((event = next(reader)) != null) {
+                    if (realTime) {
+                        long wait = start + TimeUnit.MICROSECONDS.toNanos(event.micros()) - System.nanoTime();
+                        if (wait > 0) {
+                            try {
+                                TimeUnit.NANOSECONDS.sleep(wait);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                return;
+                            }
+                        }
+                    }
+                    try {
+                        fire(event);
+                    } catch (RuntimeException e) {
+                        report.error(e);
+                    }
+                }
+            }
+        }
+        report.stop();
+    }
+
+    private static TraceEvent next(TraceReader reader) throws IOException {
+        try {
+            return reader.next();
+        } catch (EOFException e) {
+            // the last record of a trace is cut off if the server stopped while writing it
+            return null;
+        }
+    }
+
+    private void fire(TraceEvent event) {
+        Inventory inventory = menu(event).getInventory();
+        Class<? extends Event> type = event.type();
+        String name = type.getSimpleName();
+
+        if (type == InventoryMoveItemEvent.class) {
+            InventoryMoveItemEvent move = new InventoryMoveItemEvent(hopper, item, inventory, true);
+            long start = System.nanoTime();
+            listener.onEntityMoveItem(move);
+            report.record(name, start);
+            return;
+        }
+        if (type == InventoryPickupItemEvent.class) {
+            InventoryPickupItemEvent pickup = new InventoryPickupItemEvent(inventory, StubHandler.empty(Item.class));
+            long start = System.nanoTime();
+            listener.onPickUp(pickup);
+            report.record(name, start);
+            return;
+        }
+
+        StubPlayer player = players.computeIfAbsent(event.player(), id -> new StubPlayer(UUID.randomUUID(), "player" + id));
+        StubView view = player.getView();
+        if (view == null || view.getTopInventory() != inventory) {
+            view = player.open(inventory);
+        }
+
+        int rawSlot = Math.max(0, event.rawSlot());
+        InventoryType.SlotType slotType = rawSlot < inventory.getSize() ? InventoryType.SlotType.CONTAINER : InventoryType.SlotType.QUICKBAR;
+        long start = System.nanoTime();
+        if (type == InventoryOpenEvent.class) {
+            listener.onOpen(new InventoryOpenEvent(view));
+        } else if (type == InventoryCloseEvent.class) {
+            listener.onClose(new InventoryCloseEvent(view));
+            player.close();
+        } else if (type == InventoryClickEvent.class) {
+            ClickType click = event.click() == null ? ClickType.LEFT : event.click();
+            listener.onClick(new InventoryClickEvent(view, slotType, event.rawSlot(), click, InventoryAction.UNKNOWN));
+        } else if (type == InventoryCreativeEvent.class) {
+            listener.onCreative(new InventoryCreativeEvent(view, slotType, event.rawSlot(), item));
+        } else if (type == InventoryDragEvent.class) {
+            listener.onDrag(new InventoryDragEvent(view, null, item, false, Map.of(rawSlot, item)));
+        }
+        report.record(name, start);
+    }
+
+    private CustomInventory menu(TraceEvent event) {
+        CustomInventory menu = InventoryManager.get(event.key());
+        if (menu == null) {
+            menu = new VanillaInventory(InventoryType.CHEST, event.key())
+                    .onOpen(e -> {})
+                    .onClose(e -> {})
+                    .onClick(e -> {})
+                    .onDrag(e -> {})
+                    .onCreative(e -> {})
+                    .onEntityMoveItem(e -> {})
+                    .onPickUp(e -> {})
+                    .create(6)
+                    .register();
+        } else if (menu.getInventory() == null) {
+            menu.create();
+        }
+        return menu;
+    }
+
+}
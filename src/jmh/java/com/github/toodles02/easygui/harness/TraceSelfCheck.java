@@ -0,0 +1,221 @@
+package com.github.toodles02.easygui.harness;
+
+import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import com.github.toodles02.easygui.api.trace.TraceEvent;
+import com.github.toodles02.easygui.api.trace.TraceReader;
+import com.github.toodles02.easygui.api.trace.TraceRecorder;
+import com.github.toodles02.easygui.stub.StubInventory;
+import com.github.toodles02.easygui.stub.StubPlayer;
+import com.github.toodles02.easygui.stub.StubServer;
+import com.github.toodles02.easygui.stub.StubView;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryMoveItemEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Records a known sequence of events with the {@link TraceRecorder} and reads it back with the {@link TraceReader},
+ * checking that every record survives the round trip.
+ * <p>
+ * The raw slots sit on both sides of every variable length integer boundary, including negative and extreme values,
+ * and there are enough keys and players to need ids of more than one byte. Files are kept small so the trace rolls
+ * over many times, once with every file kept and once with only the newest files kept. Exits with 1 on the first
+ * mismatch. Run it with {@code ./gradlew checkTrace}.
+ */
+public final class TraceSelfCheck {
+
+    private static final int[] rawSlots = {
+            -1, 0, 1, 63, 64, -64, -65, 127, 128, 8191, 8192, 16383, 16384,
+            1048575, 1048576, Integer.MAX_VALUE, Integer.MIN_VALUE
+    };
+    private static final ClickType[] clicks = ClickType.values();
+
+    private static final int events = 5000;
+    private static final long maxFileBytes = 8 * 1024;
+    private static final int keptFiles = 2;
+
+    private final Inventory inventory = new StubInventory(InventoryType.CHEST, 54).getInventory();
+    private final Inventory hopper = new StubInventory(InventoryType.HOPPER, 5).getInventory();
+    private final ItemStack item = new ItemStack(Material.STONE);
+    private final List<VanillaInventory> menus = new ArrayList<>();
+    private final List<StubPlayer> players = new ArrayList<>();
+
+    private TraceSelfCheck() {
+        for (int i = 0; i < 200; i++) {
+            menus.add(new VanillaInventory(InventoryType.CHEST, new NamespacedKey("selfcheck", "menu" + i)));
+        }
+        // a key longer than 127 bytes needs a two byte length
+        menus.add(new VanillaInventory(InventoryType.CHEST, new NamespacedKey("selfcheck", "menu/" + "x".repeat(200))));
+        for (int i = 0; i < 300; i++) {
+            players.add(new StubPlayer(UUID.randomUUID(), "player" + i));
+        }
+    }
+
+    /**
+     * Runs the round trip checks.
+     *
+     * @param args Not used.
+     * @throws IOException If the traces can not be written or read.
+     */
+    public static void main(String[] args) throws IOException {
+        StubServer.install();
+        TraceSelfCheck check = new TraceSelfCheck();
+        try {
+            check.check(Integer.MAX_VALUE);
+            check.check(keptFiles);
+        } catch (IllegalStateException e) {
+            System.err.println("trace self-check failed: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.println("trace self-check passed");
+        System.exit(0);
+    }
+
+    /**
+     * Records the events into a new directory keeping the provided amount of files, and compares the events read back
+     * to the newest recorded ones.
+     */
+    private void check(int maxFiles) throws IOException {
+        Path directory = Files.createTempDirectory("easygui-trace");
+        try {
+            List<Expected> expected = new ArrayList<>(events);
+            TraceRecorder.start(directory, maxFileBytes, maxFiles);
+            for (int i = 0; i < events; i++) {
+                expected.add(record(i));
+            }
+            TraceRecorder.stop();
+
+            List<Path> files = TraceReader.list(directory);
+            if (files.size() < 2) {
+                throw new IllegalStateException("trace did not roll over, " + files.size() + " file(s)");
+            }
+            if (files.size() > maxFiles) {
+                throw new IllegalStateException(files.size() + " files kept, at most " + maxFiles + " expected");
+            }
+
+            List<Read> read = new ArrayList<>(events);
+            for (int file = 0; file < files.size(); file++) {
+                read(files.get(file), file, read);
+            }
+            if (maxFiles == Integer.MAX_VALUE ? read.size() != expected.size() : read.size() > expected.size()) {
+                throw new IllegalStateException(read.size() + " events read, " + expected.size() + " recorded");
+            }
+
+            // players are numbered per file, in the order they first appear in it
+            Map<Integer, UUID> numbered = new HashMap<>();
+            int offset = expected.size() - read.size();
+            for (int i = 0; i < read.size(); i++) {
+                Expected recorded = expected.get(offset + i);
+                Read event = read.get(i);
+                if (i > 0 && event.file() != read.get(i - 1).file()) {
+                    numbered.clear();
+                }
+                UUID player = null;
+                if (event.player() != 0) {
+                    player = numbered.get(event.player());
+                    if (player == null && event.player() == numbered.size() + 1) {
+                        player = recorded.player();
+                        numbered.put(event.player(), player);
+                    }
+                }
+                if (!recorded.matches(event, player)) {
+                    throw new IllegalStateException("event " + (offset + i) + " recorded as " + recorded + ", read as " + event);
+                }
+            }
+            System.out.println(read.size() + " events in " + files.size() + " files, keeping at most " + maxFiles + " files");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private Expected record(int i) {
+        VanillaInventory menu = menus.get(i % menus.size());
+        String key = menu.getKey().toString();
+        int rawSlot = rawSlots[i % rawSlots.length];
+
+        if (i % 7 == 6) {
+            TraceRecorder.record(menu, new InventoryMoveItemEvent(hopper, item, inventory, true));
+            return new Expected(key, InventoryMoveItemEvent.class, null, -1, null);
+        }
+
+        StubPlayer player = players.get(i % players.size());
+        StubView view = player.open(inventory);
+        UUID id = player.getPlayer().getUniqueId();
+        Expected expected = switch (i % 4) {
+            case 0 -> {
+                TraceRecorder.record(menu, new InventoryOpenEvent(view));
+                yield new Expected(key, InventoryOpenEvent.class, id, -1, null);
+            }
+            case 1 -> {
+                ClickType click = clicks[i % clicks.length];
+                TraceRecorder.record(menu, new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, rawSlot, click, InventoryAction.UNKNOWN));
+                yield new Expected(key, InventoryClickEvent.class, id, rawSlot, click);
+            }
+            case 2 -> {
+                TraceRecorder.record(menu, new InventoryDragEvent(view, null, item, false, Map.of(rawSlot, item)));
+                yield new Expected(key, InventoryDragEvent.class, id, rawSlot, null);
+            }
+            default -> {
+                TraceRecorder.record(menu, new InventoryCloseEvent(view));
+                yield new Expected(key, InventoryCloseEvent.class, id, -1, null);
+            }
+        };
+        player.close();
+        return expected;
+    }
+
+    private static void read(Path file, int index, List<Read> read) throws IOException {
+        long micros = 0;
+        try (TraceReader reader = new TraceReader(file)) {
+            TraceEvent event;
+            while ((event = reader.next()) != null) {
+                if (event.micros() < micros) {
+                    throw new IllegalStateException("time went backwards in " + file.getFileName());
+                }
+                micros = event.micros();
+                read.add(new Read(index, event.key().toString(), event.type(), event.player(), event.rawSlot(), event.click()));
+            }
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.walk(directory)) {
+            for (Path path : stream.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private record Expected(String key, Class<? extends Event> type, UUID player, int rawSlot, ClickType click) {
+
+        private boolean matches(Read read, UUID player) {
+            return key.equals(read.key()) && type == read.type() && Objects.equals(this.player, player)
+                    && rawSlot == read.rawSlot() && click == read.click();
+        }
+    }
+
+    private record Read(int file, String key, Class<? extends Event> type, int player, int rawSlot, ClickType click) {
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.github.toodles02.easygui.stub;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * The base of the stand-ins for the bukkit interfaces, answering calls by method name.
+ * <p>
+ * {@link Object} methods are answered by identity, every other method a stand-in does not answer throws an
+ * {@link UnsupportedOperationException}, so a benchmark never silently measures a no-op.
+ */
+public abstract class StubHandler implements InvocationHandler {
+
+    /**
+     * Creates a proxy of the provided interface answered by this handler.
+     *
+     * @param type The interface to be implemented.
+     * @param <T> The type of the interface.
+     * @return The proxy.
+     */
+    protected <T> T proxy(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, this));
+    }
+
+    /**
+     * Creates a stand-in of the provided interface which supports no methods besides the ones of {@link Object}.
+     *
+     * @param type The interface to be implemented.
+     * @param <T> The type of the interface.
+     * @return The stand-in.
+     */
+    public static <T> T empty(Class<T> type) {
+        return new StubHandler() {
+            @Override
+            protected Object answer(String name, Object[] args) {
+                throw unsupported(name);
+            }
+        }.proxy(type);
+    }
+
+    /**
+     * Answers a call of the proxy.
+     *
+     * @param name The name of the called method.
+     * @param args The arguments of the call, an empty array if there are none.
+     * @return The result of the call.
+     */
+    protected abstract Object answer(String name, Object[] args);
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (args == null) {
+            args = new Object[0];
+        }
+        switch (method.getName()) {
+            case "equals":
+                if (args.length == 1 && method.getParameterTypes()[0] == Object.class) {
+                    return proxy == args[0];
+                }
+                break;
+            case "hashCode":
+                if (args.length == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                break;
+            case "toString":
+                if (args.length == 0) {
+                    return getClass().getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                }
+                break;
+            default:
+                break;
+        }
+        return answer(method.getName(), args);
+    }
+
+    /**
+     * Returns the exception thrown for calls a stand-in does not answer.
+     *
+     * @param name The name of the called method.
+     * @return {@link UnsupportedOperationException}
+     */
+    protected UnsupportedOperationException unsupported(String name) {
+        return new UnsupportedOperationException(getClass().getSimpleName() + " does not support " + name);
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.github.toodles02.easygui.stub;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A stand-in for a bukkit {@link Inventory}, backed by an array of {@link ItemStack}.
+ * <p>
+ * Viewers are only tracked, closing the inventory removes them without firing events.
+ */
+public final class StubInventory extends StubHandler {
+
+    private final InventoryType type;
+    private final ItemStack[] contents;
+    private final List<HumanEntity> viewers = new ArrayList<>();
+    private final Inventory inventory;
+
+    /**
+     * Creates a {@link StubInventory}.
+     *
+     * @param type The {@link InventoryType} of the inventory.
+     * @param size The size of the inventory.
+     */
+    public StubInventory(InventoryType type, int size) {
+        this.type = type;
+        this.contents = new ItemStack[size];
+        this.inventory = proxy(Inventory.class);
+    }
+
+    /**
+     * Returns the stand-in behind the provided inventory.
+     *
+     * @param inventory An {@link Inventory} created by the {@link StubServer}.
+     * @return The {@link StubInventory} of the inventory.
+     */
+    public static StubInventory of(Inventory inventory) {
+        return (StubInventory) Proxy.getInvocationHandler(inventory);
+    }
+
+    /**
+     * Returns the bukkit view of this stand-in.
+     * @return {@link Inventory}
+     */
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Returns the mutable list of viewers.
+     * @return A {@link List} of {@link HumanEntity}
+     */
+    public List<HumanEntity> getViewers() {
+        return viewers;
+    }
+
+    @Override
+    protected Object answer(String name, Object[] args) {
+        switch (name) {
+            case "getSize":
+                return contents.length;
+            case "getType":
+                return type;
+            case "getHolder":
+                return null;
+            case "getItem":
+                return contents[(Integer) args[0]];
+            case "setItem":
+                contents[(Integer) args[0]] = (ItemStack) args[1];
+                return null;
+            case "getContents":
+            case "getStorageContents":
+                return contents.clone();
+            case "setContents":
+            case "setStorageContents":
+                ItemStack[] items = (ItemStack[]) args[0];
+                Arrays.fill(contents, null);
+                System.arraycopy(items, 0, contents, 0, Math.min(items.length, contents.length));
+                return null;
+            case "clear":
+                if (args.length == 0) {
+                    Arrays.fill(contents, null);
+                } else {
+                    contents[(Integer) args[0]] = null;
+                }
+                return null;
+            case "isEmpty":
+                for (ItemStack item : contents) {
+                    if (item != null) {
+                        return false;
+                    }
+                }
+                return true;
+            case "iterator":
+                return Arrays.asList(contents).iterator();
+            case "getViewers":
+                return new ArrayList<>(viewers);
+            case "close":
+                int closed = viewers.size();
+                viewers.clear();
+                return closed;
+            default:
+                throw unsupported(name);
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.github.toodles02.easygui.stub;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+
+import java.util.UUID;
+
+/**
+ * A stand-in for a {@link Player}, with a name, a {@link UUID}, a player inventory and an open {@link StubView}.
+ * <p>
+ * Opening and closing only updates the view and the viewers of the inventory, the events are fired by the caller.
+ */
+public final class StubPlayer extends StubHandler {
+
+    private final UUID id;
+    private final String name;
+    private final Player player;
+    private final Inventory playerInventory = new StubInventory(InventoryType.PLAYER, 41).getInventory();
+    private StubView view = null;
+
+    /**
+     * Creates a {@link StubPlayer}.
+     *
+     * @param id The {@link UUID} of the player.
+     * @param name The name of the player.
+     */
+    public StubPlayer(UUID id, String name) {
+        this.id = id;
+        this.name = name;
+        this.player = proxy(Player.class);
+    }
+
+    /**
+     * Returns the bukkit view of this stand-in.
+     * @return {@link Player}
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Opens the provided inventory, closing the open one.
+     *
+     * @param inventory An {@link Inventory} created by the {@link StubServer}.
+     * @return The {@link StubView} of the opened inventory.
+     */
+    public StubView open(Inventory inventory) {
+        close();
+        StubInventory.of(inventory).getViewers().add(player);
+        view = new StubView(inventory, playerInventory, player);
+        return view;
+    }
+
+    /**
+     * Closes the open inventory, if there is one.
+     */
+    public void close() {
+        if (view != null) {
+            StubInventory.of(view.getTopInventory()).getViewers().remove(player);
+            view = null;
+        }
+    }
+
+    /**
+     * Returns the open view.
+     * @return {@link StubView}, null if no inventory is open.
+     */
+    public StubView getView() {
+        return view;
+    }
+
+    @Override
+    protected Object answer(String name, Object[] args) {
+        return switch (name) {
+            case "getUniqueId" -> id;
+            case "getName" -> this.name;
+            case "getInventory" -> playerInventory;
+            case "getOpenInventory" -> view;
+            case "openInventory" -> args[0] instanceof Inventory inventory ? open(inventory) : null;
+            case "closeInventory" -> {
+                close();
+                yield null;
+            }
+            case "sendMessage" -> null;
+            default -> throw unsupported(name);
+        };
+    }
+
+}
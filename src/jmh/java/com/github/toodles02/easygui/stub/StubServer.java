@@ -0,0 +1,59 @@
+package com.github.toodles02.easygui.stub;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.event.inventory.InventoryType;
+
+import java.util.logging.Logger;
+
+/**
+ * A stand-in for the bukkit {@link Server}, creating {@link StubInventory} objects.
+ * <p>
+ * Only what EasyGUI needs to create and route inventories is supported. Code paths scheduling tasks through
+ * {@code EasyGUI.getInstance()} need a real plugin and are not supported.
+ */
+public final class StubServer extends StubHandler {
+
+    private static StubServer installed = null;
+
+    private final Logger logger = Logger.getLogger("StubServer");
+    private final Thread mainThread = Thread.currentThread();
+
+    private StubServer() {
+    }
+
+    /**
+     * Installs the stand-in as the bukkit {@link Server}, once per JVM. The installing thread is treated as the main
+     * thread.
+     *
+     * @return The installed {@link StubServer}.
+     */
+    public static synchronized StubServer install() {
+        if (installed == null) {
+            StubServer server = new StubServer();
+            Bukkit.setServer(server.proxy(Server.class));
+            installed = server;
+        }
+        return installed;
+    }
+
+    @Override
+    protected Object answer(String name, Object[] args) {
+        return switch (name) {
+            case "getLogger" -> logger;
+            case "getName" -> "StubServer";
+            case "getVersion", "getBukkitVersion", "getMinecraftVersion" -> "1.19-R0.1-SNAPSHOT";
+            case "isPrimaryThread" -> Thread.currentThread() == mainThread;
+            case "createInventory" -> createInventory(args);
+            default -> throw unsupported(name);
+        };
+    }
+
+    private Object createInventory(Object[] args) {
+        if (args[1] instanceof InventoryType type) {
+            return new StubInventory(type, type == InventoryType.CHEST ? 27 : type.getDefaultSize()).getInventory();
+        }
+        return new StubInventory(InventoryType.CHEST, (Integer) args[1]).getInventory();
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.github.toodles02.easygui.stub;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+
+/**
+ * A stand-in for the {@link InventoryView} of a player looking at an inventory.
+ */
+public final class StubView extends InventoryView {
+
+    private final Inventory top;
+    private final Inventory bottom;
+    private final HumanEntity player;
+
+    /**
+     * Creates a {@link StubView}.
+     *
+     * @param top The viewed {@link Inventory}.
+     * @param bottom The inventory of the player.
+     * @param player The viewing player.
+     */
+    public StubView(Inventory top, Inventory bottom, HumanEntity player) {
+        this.top = top;
+        this.bottom = bottom;
+        this.player = player;
+    }
+
+    @Override
+    public Inventory getTopInventory() {
+        return top;
+    }
+
+    @Override
+    public Inventory getBottomInventory() {
+        return bottom;
+    }
+
+    @Override
+    public HumanEntity getPlayer() {
+        return player;
+    }
+
+    @Override
+    public InventoryType getType() {
+        return top.getType();
+    }
+
+    public Component title() {
+        return Component.text(getTitle());
+    }
+
+    public String getTitle() {
+        return "Stub";
+    }
+
+    public String getOriginalTitle() {
+        return getTitle();
+    }
+
+    public void setTitle(String title) {
+    }
+
+}
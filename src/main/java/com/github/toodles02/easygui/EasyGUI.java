@@ -1,12 +1,27 @@
 package com.github.toodles02.easygui;
 
 
-import com.github.toodles02.easygui.api.event.InventoryListener;
+import com.github.toodles02.easygui.api.event.PlayerListener;
 import com.github.toodles02.easygui.api.inventory.InventoryShape;
 import com.github.toodles02.easygui.api.inventory.ShapedInventory;
 import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import com.github.toodles02.easygui.api.manager.AnimationManager;
+import com.github.toodles02.easygui.api.manager.BroadcastManager;
+import com.github.toodles02.easygui.api.manager.BuildManager;
+import com.github.toodles02.easygui.api.manager.EvictionManager;
+import com.github.toodles02.easygui.api.manager.InventoryManager;
+import com.github.toodles02.easygui.api.manager.InventoryPool;
+import com.github.toodles02.easygui.api.manager.ListenerManager;
+import com.github.toodles02.easygui.api.manager.MenuManager;
+import com.github.toodles02.easygui.api.manager.NavigationManager;
+import com.github.toodles02.easygui.api.manager.SessionManager;
+import com.github.toodles02.easygui.api.manager.UpdateManager;
+import com.github.toodles02.easygui.api.metrics.HandlerWatchdog;
+import com.github.toodles02.easygui.api.trace.TraceRecorder;
+import com.github.toodles02.easygui.command.EasyGUICommand;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
+import org.bukkit.command.PluginCommand;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.ItemStack;
@@ -25,10 +40,39 @@ public final class EasyGUI extends JavaPlugin {
     @Override
     public void onEnable() {
 
-        getServer().getPluginManager().registerEvents(new InventoryListener(), this);
+        ListenerManager.enable(this);
+        SessionManager.enable();
+        getServer().getPluginManager().registerEvents(new PlayerListener(), this);
+
+        PluginCommand command = getCommand("easygui");
+        if (command != null) {
+            EasyGUICommand executor = new EasyGUICommand();
+            command.setExecutor(executor);
+            command.setTabCompleter(executor);
+        }
         getLogger().info("Registered listener!");
     }
 
+    /**
+     * Handles cleanup when the server is disabled.
+     */
+    @Override
+    public void onDisable() {
+        InventoryManager.clear();
+        SessionManager.disable();
+        NavigationManager.clear();
+        ListenerManager.disable();
+        MenuManager.stopWatching();
+        AnimationManager.stopAll();
+        BroadcastManager.stopAll();
+        EvictionManager.clear();
+        UpdateManager.flush();
+        InventoryPool.clear();
+        BuildManager.shutdown();
+        HandlerWatchdog.disable();
+        TraceRecorder.stop();
+    }
+
     /**
      * Returns this server instance.
      * @return {@link EasyGUI}.
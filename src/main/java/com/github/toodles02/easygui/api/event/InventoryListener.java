@@ -1,16 +1,29 @@
 package com.github.toodles02.easygui.api.event;
 
 
+import com.github.toodles02.easygui.api.inventory.ClickLimiter;
 import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import com.github.toodles02.easygui.api.metrics.HandlerWatchdog;
+import com.github.toodles02.easygui.api.metrics.InventoryMetrics;
+import com.github.toodles02.easygui.api.trace.TraceRecorder;
+import org.bukkit.event.Event;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.*;
-import org.bukkit.inventory.Inventory;
 import com.github.toodles02.easygui.api.inventory.CustomInventory;
 import com.github.toodles02.easygui.api.manager.InventoryManager;
+import com.github.toodles02.easygui.api.manager.ListenerManager;
+import com.github.toodles02.easygui.api.manager.NavigationManager;
+import com.github.toodles02.easygui.api.manager.SessionManager;
+import org.bukkit.inventory.Inventory;
+
+import java.util.UUID;
 
 /**
  * The listener for all registered {@link VanillaInventory}.
+ * <p>
+ * Registered per event type by the {@link ListenerManager}, only for the event types registered inventories handle.
  */
 public class InventoryListener implements Listener {
 
@@ -21,25 +34,42 @@ public class InventoryListener implements Listener {
     @EventHandler
     public void onOpen(InventoryOpenEvent event) {
 
-        for (CustomInventory customInventory : InventoryManager.getInventories()) {
-            if (customInventory.getInventory().equals(event.getInventory())) {
-                customInventory.getHandler().handle(event);
-            }
+        CustomInventory customInventory = InventoryManager.get(event.getInventory());
+        if (customInventory != null) {
+            dispatch(customInventory, event);
         }
 
     }
 
+    /**
+     * Tracks the viewer of an opened inventory once no other listener can cancel the {@link InventoryOpenEvent}.
+     * Registered at the monitor priority, and only called if the event was not cancelled.
+     * @param event The {@link InventoryOpenEvent}.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onOpened(InventoryOpenEvent event) {
+        CustomInventory customInventory = InventoryManager.get(event.getInventory());
+        if (customInventory != null) {
+            InventoryManager.opened(event.getInventory());
+            SessionManager.open(event.getPlayer().getUniqueId(), customInventory, event.getInventory());
+            InventoryMetrics.opened(customInventory);
+        }
+    }
+
     /**
      * Handles the {@link InventoryCloseEvent}.
      * @param event The {@link InventoryCloseEvent}.
      */
     @EventHandler
     public void onClose(InventoryCloseEvent event) {
-        for (CustomInventory customInventory : InventoryManager.getInventories()) {
-            if (customInventory.getInventory().equals(event.getInventory())) {
-                customInventory.getHandler().handle(event);
-            }
+        CustomInventory customInventory = InventoryManager.get(event.getInventory());
+        if (customInventory != null) {
+            dispatch(customInventory, event);
+            InventoryManager.closed(event.getInventory());
         }
+        // also ends sessions of inventories unregistered while they were open
+        SessionManager.close(event.getPlayer().getUniqueId(), event.getInventory());
+        NavigationManager.closed(event.getPlayer().getUniqueId(), event.getReason());
 
     }
 
@@ -49,10 +79,9 @@ public class InventoryListener implements Listener {
      */
     @EventHandler
     public void onDrag(InventoryDragEvent event) {
-        for (CustomInventory customInventory : InventoryManager.getInventories()) {
-            if (customInventory.getInventory().equals(event.getInventory())) {
-                customInventory.getHandler().handle(event);
-            }
+        CustomInventory customInventory = InventoryManager.get(event.getInventory());
+        if (customInventory != null) {
+            dispatch(customInventory, event);
         }
 
     }
@@ -64,41 +93,57 @@ public class InventoryListener implements Listener {
     @EventHandler
     public void onClick(InventoryClickEvent event) {
 
-        for (CustomInventory customInventory : InventoryManager.getInventories()) {
-            if (customInventory.getInventory().equals(event.getInventory()) || customInventory.getInventory().equals(event.getClickedInventory())) {
-                customInventory.getHandler().handle(event);
+        CustomInventory customInventory = InventoryManager.get(event.getInventory());
+        if (customInventory == null) {
+            customInventory = InventoryManager.get(event.getClickedInventory());
+        }
+        if (customInventory != null) {
+            if (!allowClick(customInventory, event)) {
+                event.setCancelled(true);
+                TraceRecorder.record(customInventory, event);
+                return;
             }
+            dispatch(customInventory, event);
         }
 
     }
 
     /**
      * Handles the {@link InventoryPickupItemEvent}.
+     * <p>
+     * Fires for every hopper on the server, inventories not owned by EasyGUI are rejected by a single identity lookup.
      * @param event The {@link InventoryPickupItemEvent}.
      */
     @EventHandler
     public void onPickUp(InventoryPickupItemEvent event) {
 
-        for (CustomInventory customInventory : InventoryManager.getInventories()) {
-            if (customInventory.getInventory().equals(event.getInventory())) {
-                customInventory.getHandler().handle(event);
-            }
+        CustomInventory customInventory = InventoryManager.get(event.getInventory());
+        if (customInventory != null) {
+            dispatch(customInventory, event);
         }
 
     }
 
     /**
      * Handles the {@link InventoryMoveItemEvent}.
+     * <p>
+     * Fires for every hopper on the server, inventories not owned by EasyGUI are rejected by a single identity lookup.
      * @param event The {@link InventoryMoveItemEvent}.
      */
     @EventHandler
     public void onEntityMoveItem(InventoryMoveItemEvent event) {
 
-        for (CustomInventory customInventory : InventoryManager.getInventories()) {
-            Inventory inventory = customInventory.getInventory();
-            if (inventory.equals(event.getDestination()) || inventory.equals(event.getInitiator())) {
-                customInventory.getHandler().handle(event);
-            }
+        CustomInventory destination = InventoryManager.get(event.getDestination());
+        if (destination != null) {
+            dispatch(destination, event);
+        }
+        Inventory initiatorInventory = event.getInitiator();
+        if (initiatorInventory == event.getDestination()) {
+            return;
+        }
+        CustomInventory initiator = InventoryManager.get(initiatorInventory);
+        if (initiator != null && initiator != destination) {
+            dispatch(initiator, event);
         }
 
     }
@@ -110,14 +155,63 @@ public class InventoryListener implements Listener {
     @EventHandler
     public void onCreative(InventoryCreativeEvent event) {
 
-        for (CustomInventory customInventory : InventoryManager.getInventories()) {
-            if (customInventory.getInventory().equals(event.getInventory()) || customInventory.getInventory().equals(event.getClickedInventory())) {
-                customInventory.getHandler().handle(event);
-            }
+        CustomInventory customInventory = InventoryManager.get(event.getInventory());
+        if (customInventory == null) {
+            customInventory = InventoryManager.get(event.getClickedInventory());
+        }
+        if (customInventory != null) {
+            dispatch(customInventory, event);
+        }
+
+    }
+
+    /**
+     * Takes a token from the {@link ClickLimiter} of the inventory and of the clicked slot.
+     *
+     * @return False if the player is clicking too fast.
+     */
+    private boolean allowClick(CustomInventory customInventory, InventoryClickEvent event) {
+        ClickLimiter limiter = customInventory.getClickLimiter();
+        ClickLimiter slotLimiter = customInventory.getClickLimiter(event.getRawSlot());
+        if (limiter == null && slotLimiter == null) {
+            return true;
         }
 
+        UUID player = event.getWhoClicked().getUniqueId();
+        long now = System.nanoTime();
+        return (limiter == null || limiter.tryAcquire(player, now)) && (slotLimiter == null || slotLimiter.tryAcquire(player, now));
     }
 
+    /**
+     * Handles the event with the handler of the provided inventory, recording its latency if
+     * {@link InventoryMetrics} are enabled, watching it if the {@link HandlerWatchdog} is enabled and recording it if
+     * the {@link TraceRecorder} is recording.
+     */
+    private void dispatch(CustomInventory customInventory, Event event) {
+        TraceRecorder.record(customInventory, event);
+
+        boolean metrics = InventoryMetrics.isEnabled();
+        boolean watchdog = HandlerWatchdog.isEnabled();
+        if (!metrics && !watchdog) {
+            customInventory.getHandler().handle(event);
+            return;
+        }
 
+        long start = System.nanoTime();
+        if (watchdog) {
+            HandlerWatchdog.enter(start);
+        }
+        try {
+            customInventory.getHandler().handle(event);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (watchdog) {
+                HandlerWatchdog.exit(customInventory, event, elapsed);
+            }
+            if (metrics) {
+                InventoryMetrics.record(customInventory, event, elapsed);
+            }
+        }
+    }
 
 }
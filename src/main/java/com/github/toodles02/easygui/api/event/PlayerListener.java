@@ -0,0 +1,29 @@
+package com.github.toodles02.easygui.api.event;
+
+import com.github.toodles02.easygui.api.inventory.ClickLimiter;
+import com.github.toodles02.easygui.api.inventory.InstancedInventory;
+import com.github.toodles02.easygui.api.manager.NavigationManager;
+import com.github.toodles02.easygui.api.manager.SessionManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * The listener dropping the per-player state of EasyGUI when a player leaves.
+ */
+public class PlayerListener implements Listener {
+
+    /**
+     * Handles the {@link PlayerQuitEvent}.
+     * @param event The {@link PlayerQuitEvent}.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        ClickLimiter.forgetAll(event.getPlayer().getUniqueId());
+        InstancedInventory.forgetAll(event.getPlayer().getUniqueId());
+        SessionManager.end(event.getPlayer().getUniqueId());
+        NavigationManager.forget(event.getPlayer().getUniqueId());
+    }
+
+}
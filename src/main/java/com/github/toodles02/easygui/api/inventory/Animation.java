@@ -0,0 +1,85 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * A sequence of frames shown in one or more slots of a {@link VanillaInventory}, see
+ * {@link VanillaInventory#animate(int, int, ItemStack...)}.
+ */
+public final class Animation {
+
+    private final int[] slots;
+    private final int period;
+    private final ItemStack[] frames;
+
+    /**
+     * Creates an {@link Animation}.
+     *
+     * @param slots The slots showing the frames.
+     * @param period The ticks each frame is shown for.
+     * @param frames The frames, shown in order and repeated.
+     * @throws IllegalArgumentException If the period is less than 1, or there are no frames.
+     */
+    public Animation(int[] slots, int period, ItemStack... frames) throws IllegalArgumentException {
+        if (period < 1) {
+            throw new IllegalArgumentException("invalid period");
+        }
+        if (frames.length == 0) {
+            throw new IllegalArgumentException("no frames");
+        }
+        this.slots = slots.clone();
+        this.period = period;
+        this.frames = frames.clone();
+    }
+
+    /**
+     * Returns the slots showing the frames.
+     * @return The slots.
+     */
+    public int[] getSlots() {
+        return slots.clone();
+    }
+
+    /**
+     * Returns the ticks each frame is shown for.
+     * @return The period in ticks.
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Returns the amount of frames.
+     * @return The amount of frames.
+     */
+    public int getFrameCount() {
+        return frames.length;
+    }
+
+    /**
+     * Returns the provided frame.
+     *
+     * @param frame The index of the frame, starting from 0.
+     * @return The {@link ItemStack} of the frame.
+     */
+    public ItemStack getFrame(int frame) {
+        return frames[frame];
+    }
+
+    /**
+     * Shows the provided frame in every slot of the animation, if it differs from the previous frame.
+     *
+     * @param inventory The {@link VanillaInventory} showing the animation.
+     * @param previous The index of the frame shown before.
+     * @param frame The index of the frame to be shown.
+     */
+    public void show(VanillaInventory inventory, int previous, int frame) {
+        if (frames[previous] == frames[frame]) {
+            return;
+        }
+        for (int slot : slots) {
+            inventory.setSlot(slot, frames[frame]);
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * A per-player token bucket limiting how often the slots of an inventory can be clicked, see
+ * {@link VanillaInventory#setClickLimit(int, double)}.
+ * <p>
+ * Every player starts with a full bucket of tokens, a click takes one token and tokens are refilled at a constant rate.
+ * The buckets are kept in an open addressing table of primitive arrays keyed by the player's {@link UUID}, and are
+ * dropped when the player quits. Must only be used from the main thread.
+ */
+public final class ClickLimiter {
+
+    private static final Set<ClickLimiter> limiters = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private boolean[] used = new boolean[16];
+    private long[] mostBits = new long[16];
+    private long[] leastBits = new long[16];
+    private double[] tokens = new double[16];
+    private long[] stamps = new long[16];
+    private int size = 0;
+
+    /**
+     * Creates a {@link ClickLimiter}.
+     *
+     * @param capacity The maximum amount of clicks in a burst.
+     * @param refillPerSecond The amount of clicks allowed per second once the burst is used up.
+     * @throws IllegalArgumentException If the capacity is less than 1, or the refill rate is not positive.
+     */
+    public ClickLimiter(int capacity, double refillPerSecond) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("invalid capacity");
+        }
+        if (!(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("invalid refill rate");
+        }
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        limiters.add(this);
+    }
+
+    /**
+     * Takes a token from the bucket of the provided player.
+     *
+     * @param player The {@link UUID} of the player.
+     * @return True if the click is allowed, false if the player is clicking too fast.
+     */
+    public boolean tryAcquire(UUID player) {
+        return tryAcquire(player, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the bucket of the provided player at the provided time.
+     *
+     * @param player The {@link UUID} of the player.
+     * @param now The current time, from {@link System#nanoTime()}.
+     * @return True if the click is allowed, false if the player is clicking too fast.
+     */
+    public boolean tryAcquire(UUID player, long now) {
+        long most = player.getMostSignificantBits();
+        long least = player.getLeastSignificantBits();
+
+        int index = find(most, least);
+        if (!used[index]) {
+            if ((size + 1) * 2 > used.length) {
+                grow();
+                index = find(most, least);
+            }
+            used[index] = true;
+            mostBits[index] = most;
+            leastBits[index] = least;
+            tokens[index] = capacity;
+            stamps[index] = now;
+            size++;
+        }
+
+        double available = Math.min(capacity, tokens[index] + (now - stamps[index]) * refillPerNano);
+        stamps[index] = now;
+        if (available < 1) {
+            tokens[index] = available;
+            return false;
+        }
+        tokens[index] = available - 1;
+        return true;
+    }
+
+    /**
+     * Drops the bucket of the provided player.
+     *
+     * @param player The {@link UUID} of the player.
+     */
+    public void forget(UUID player) {
+        int index = find(player.getMostSignificantBits(), player.getLeastSignificantBits());
+        if (!used[index]) {
+            return;
+        }
+
+        used[index] = false;
+        size--;
+
+        // shift the following entries of the probe sequence back, so lookups do not stop at the removed slot
+        int mask = used.length - 1;
+        int next = (index + 1) & mask;
+        while (used[next]) {
+            int home = hash(mostBits[next], leastBits[next]) & mask;
+            if (((next - home) & mask) >= ((next - index) & mask)) {
+                move(next, index);
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    /**
+     * Drops the buckets of the provided player from every limiter. Called when the player quits.
+     *
+     * @param player The {@link UUID} of the player.
+     */
+    public static void forgetAll(UUID player) {
+        for (ClickLimiter limiter : limiters) {
+            limiter.forget(player);
+        }
+    }
+
+    /**
+     * Returns the amount of players with a bucket.
+     * @return The amount of tracked players.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int find(long most, long least) {
+        int mask = used.length - 1;
+        int index = hash(most, least) & mask;
+        while (used[index] && (mostBits[index] != most || leastBits[index] != least)) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void move(int from, int to) {
+        used[to] = true;
+        mostBits[to] = mostBits[from];
+        leastBits[to] = leastBits[from];
+        tokens[to] = tokens[from];
+        stamps[to] = stamps[from];
+        used[from] = false;
+    }
+
+    private void grow() {
+        boolean[] oldUsed = used;
+        long[] oldMost = mostBits;
+        long[] oldLeast = leastBits;
+        double[] oldTokens = tokens;
+        long[] oldStamps = stamps;
+
+        int length = oldUsed.length * 2;
+        used = new boolean[length];
+        mostBits = new long[length];
+        leastBits = new long[length];
+        tokens = new double[length];
+        stamps = new long[length];
+
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int index = find(oldMost[i], oldLeast[i]);
+                used[index] = true;
+                mostBits[index] = oldMost[i];
+                leastBits[index] = oldLeast[i];
+                tokens[index] = oldTokens[i];
+                stamps[index] = oldStamps[i];
+            }
+        }
+    }
+
+    private static int hash(long most, long least) {
+        long hash = most ^ least;
+        int h = (int) (hash ^ (hash >>> 32));
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable, compiled form of an {@link InventoryShape}, created by {@link InventoryShape#compile()}.
+ * <p>
+ * The letters of the shape are numbered into a palette. Every slot holds the palette index of its letter, and every
+ * palette entry holds its letter, its {@link ItemStack} and the slots it occupies. Shapes with identical rows share
+ * the same slot tables, which are interned weakly and dropped once no compiled shape uses them.
+ */
+public final class CompiledShape {
+
+    private static final Map<String, LayoutReference> layouts = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Layout> collected = new ReferenceQueue<>();
+
+    private final int rows;
+    private final Layout layout;
+    private final ItemStack[] palette;
+
+    CompiledShape(int rows, String[] shapes, Map<Character, ItemStack> shapeMap) throws IllegalStateException {
+        this.rows = rows;
+
+        StringBuilder key = new StringBuilder(rows * 9);
+        for (String shape : shapes) {
+            key.append(shape == null ? "_________" : shape);
+        }
+        this.layout = intern(key.toString());
+
+        this.palette = new ItemStack[layout.letters.length];
+        for (int i = 0; i < palette.length; i++) {
+            ItemStack item = shapeMap.get(layout.letters[i]);
+            if (item == null) {
+                throw new IllegalStateException("character is not set in shape");
+            }
+            palette[i] = item;
+        }
+    }
+
+    /**
+     * Returns the shared layout of the provided rows, creating it if no compiled shape uses it.
+     */
+    private static Layout intern(String key) {
+        LayoutReference stale;
+        while ((stale = (LayoutReference) collected.poll()) != null) {
+            layouts.remove(stale.key, stale);
+        }
+
+        while (true) {
+            LayoutReference reference = layouts.get(key);
+            Layout layout = reference == null ? null : reference.get();
+            if (layout != null) {
+                return layout;
+            }
+
+            Layout created = new Layout(key);
+            LayoutReference replacement = new LayoutReference(key, created, collected);
+            if (reference == null ? layouts.putIfAbsent(key, replacement) == null : layouts.replace(key, reference, replacement)) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Returns whether this compiled shape still matches the provided letter mappings.
+     */
+    boolean matches(Map<Character, ItemStack> shapeMap) {
+        for (int i = 0; i < palette.length; i++) {
+            if (shapeMap.get(layout.letters[i]) != palette[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the rows of the compiled shape.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of slots of the compiled shape, which is the rows multiplied by 9.
+     *
+     * @return The number of slots.
+     */
+    public int getSize() {
+        return layout.slots.length;
+    }
+
+    /**
+     * Returns the letter of the provided slot.
+     *
+     * @param slot The index of the slot, starting from 0.
+     * @return The letter of the slot, or {@code 0} if the row of the slot was not shaped.
+     */
+    public char getLetter(int slot) {
+        byte index = layout.slots[slot];
+        return index == -1 ? 0 : layout.letters[index];
+    }
+
+    /**
+     * Returns the {@link ItemStack} of the provided slot.
+     *
+     * @param slot The index of the slot, starting from 0.
+     * @return The {@link ItemStack} of the slot, or null if the row of the slot was not shaped.
+     */
+    public ItemStack getItem(int slot) {
+        byte index = layout.slots[slot];
+        return index == -1 ? null : palette[index];
+    }
+
+    /**
+     * Returns the slots of the provided letter, in ascending order.
+     *
+     * @param letter The letter of the shape.
+     * @return The slots of the letter, empty if the letter is not in the shape.
+     */
+    public int[] getSlots(char letter) {
+        for (int i = 0; i < layout.letters.length; i++) {
+            if (layout.letters[i] == letter) {
+                return layout.letterSlots[i].clone();
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Returns the distinct letters of the shape, in the order they first appear.
+     *
+     * @return The letters of the shape.
+     */
+    public char[] getLetters() {
+        return layout.letters.clone();
+    }
+
+    /**
+     * Returns the items of all slots, suitable for {@link org.bukkit.inventory.Inventory#setContents(ItemStack[])}.
+     *
+     * @return A new array of the size of the shape, with null for slots of rows that were not shaped.
+     */
+    public ItemStack[] getContents() {
+        ItemStack[] contents = new ItemStack[layout.slots.length];
+        for (int i = 0; i < contents.length; i++) {
+            byte index = layout.slots[i];
+            if (index != -1) {
+                contents[i] = palette[index];
+            }
+        }
+        return contents;
+    }
+
+    /**
+     * A weak reference to an interned layout, removed from the interning map once the layout was collected.
+     */
+    private static final class LayoutReference extends WeakReference<Layout> {
+
+        private final String key;
+
+        private LayoutReference(String key, Layout layout, ReferenceQueue<Layout> queue) {
+            super(layout, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * The slot tables of a shape, shared between compiled shapes with the same rows.
+     */
+    private static final class Layout {
+
+        private final byte[] slots;
+        private final char[] letters;
+        private final int[][] letterSlots;
+
+        private Layout(String shape) {
+            slots = new byte[shape.length()];
+
+            char[] found = new char[52];
+            int[] counts = new int[52];
+            int size = 0;
+
+            for (int i = 0; i < shape.length(); i++) {
+                char letter = shape.charAt(i);
+                if (letter == '_') {
+                    slots[i] = -1;
+                    continue;
+                }
+
+                int index = 0;
+                while (index < size && found[index] != letter) {
+                    index++;
+                }
+                if (index == size) {
+                    found[size++] = letter;
+                }
+                slots[i] = (byte) index;
+                counts[index]++;
+            }
+
+            letters = Arrays.copyOf(found, size);
+            letterSlots = new int[size][];
+            for (int i = 0; i < size; i++) {
+                letterSlots[i] = new int[counts[i]];
+                counts[i] = 0;
+            }
+            for (int i = 0; i < slots.length; i++) {
+                byte index = slots[i];
+                if (index != -1) {
+                    letterSlots[index][counts[index]++] = i;
+                }
+            }
+        }
+    }
+
+}
@@ -54,6 +54,17 @@ public interface CustomInventory {
         return this;
     }
 
+    /**
+     * Registers this inventory into the {@link InventoryManager} until its last viewer closes it, or it is no longer
+     * used. See {@link InventoryManager#registerTransient(CustomInventory)} for more info.
+     *
+     * @return {@link CustomInventory}
+     */
+    default CustomInventory registerTransient() {
+        InventoryManager.registerTransient(this);
+        return this;
+    }
+
     /**
      * Opens the inventory to the provided {@link Player}.
      * @param player The {@link Player} to open the inventory for.
@@ -169,4 +180,21 @@ public interface CustomInventory {
      * @return {@link Inventory} if the inventory was created ({@link #create()}, {@link #create(int)}), null otherwise.
      */
     Inventory getInventory();
+
+    /**
+     * Returns the {@link ClickLimiter} applied to every click in this inventory.
+     * @return {@link ClickLimiter}, null if clicks are not limited.
+     */
+    default ClickLimiter getClickLimiter() {
+        return null;
+    }
+
+    /**
+     * Returns the {@link ClickLimiter} applied to clicks on the provided slot, in addition to {@link #getClickLimiter()}.
+     * @param rawSlot The raw slot of the click.
+     * @return {@link ClickLimiter}, null if clicks on the slot are not limited.
+     */
+    default ClickLimiter getClickLimiter(int rawSlot) {
+        return null;
+    }
 }
\ No newline at end of file
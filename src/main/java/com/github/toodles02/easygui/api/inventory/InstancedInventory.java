@@ -0,0 +1,324 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import com.github.toodles02.easygui.EasyGUI;
+import com.github.toodles02.easygui.api.manager.InventoryManager;
+import com.github.toodles02.easygui.api.manager.InventoryPool;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * A template inventory which opens a separate bukkit {@link Inventory} for every player.
+ * <p>
+ * {@link #create()} only captures the base layout. Every {@link #open(Player)} takes an inventory from the
+ * {@link InventoryPool}, fills it with the base layout and lets the renderer personalize it. Events of every instance
+ * are routed to this inventory's handler, so only the template has to be registered. Instances are returned to the
+ * pool once they are closed.
+ * <p>
+ * The base layout is shared by all instances. The slots of a player which differ from it are kept in a sparse overlay,
+ * see {@link #setSlot(Player, int, ItemStack)}, which is written over the base layout whenever their instance is
+ * filled. Overlays outlive the instances and are dropped when the player quits.
+ */
+public class InstancedInventory extends VanillaInventory {
+
+    private static final Set<InstancedInventory> templates = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final Map<UUID, Inventory> instances = new HashMap<>();
+    private final Map<UUID, SlotOverlay> overlays = new HashMap<>();
+
+    private ItemStack[] base = null;
+    private Component instanceTitle = null;
+
+    private BiConsumer<Player, Inventory> renderer = (player, inventory) -> {};
+
+    /**
+     * Creates an {@link InstancedInventory} of the desired {@link InventoryType} and {@link NamespacedKey}.
+     *
+     * @param type The {@link InventoryType} of this custom inventory.
+     * @param namespace The {@link NamespacedKey} that will be used to register this object. See {@link #register()} for more info.
+     */
+    public InstancedInventory(InventoryType type, NamespacedKey namespace) {
+        super(type, namespace);
+        handler.addHandler(InventoryCloseEvent.class, this::onInstanceClose, EventPriority.MONITOR);
+        templates.add(this);
+    }
+
+    /**
+     * Sets the renderer which personalizes the instance of a player after it was filled with the base layout.
+     *
+     * @param renderer The renderer, receiving the {@link Player} and their {@link Inventory}.
+     * @return {@link InstancedInventory}
+     */
+    public InstancedInventory onRender(BiConsumer<Player, Inventory> renderer) {
+        this.renderer = renderer;
+        return this;
+    }
+
+    /**
+     * Not supported, instances are pooled and returned to the {@link InventoryPool} once they are closed.
+     *
+     * @param idleTicks The ticks without viewers after which the inventory is released.
+     * @return Nothing.
+     * @throws IllegalStateException Always.
+     */
+    @Override
+    public InstancedInventory setLazy(long idleTicks) throws IllegalStateException {
+        throw new IllegalStateException("instanced inventories can not be lazy");
+    }
+
+    /**
+     * Captures the base layout for instances with the provided rows.
+     * If the inventory type is not a chest, use {@link #create()}.
+     *
+     * @param rows The rows of the inventory.
+     * @return {@link InstancedInventory}
+     * @throws IllegalArgumentException If the inventory type is not a chest, or the rows is not between 1 and 6.
+     */
+    @Override
+    public InstancedInventory create(int rows) throws IllegalArgumentException {
+        if (type != InventoryType.CHEST) {
+            throw new IllegalArgumentException("invalid type for creating an inventory of that rows");
+        }
+        if (rows < 1 || rows > 6) {
+            throw new IllegalArgumentException("invalid rows for creating inventory");
+        }
+
+        capture(rows * 9);
+        return this;
+    }
+
+    /**
+     * Captures the base layout for instances. If the inventory type is a chest, it will default to a size of 27 slots.
+     * See {@link #create(int)} if you want to create an inventory with a different size.
+     *
+     * @return {@link InstancedInventory}
+     */
+    @Override
+    public InstancedInventory create() {
+        capture(type == InventoryType.CHEST ? 27 : type.getDefaultSize());
+        return this;
+    }
+
+    private void capture(int size) {
+        this.size = size;
+        this.instanceTitle = title;
+        this.base = new ItemStack[size];
+        for (int i = 0; i < Math.min(size, items.size()); i++) {
+            base[i] = items.get(i);
+        }
+    }
+
+    /**
+     * Opens the instance of the provided {@link Player}, creating it if they do not have one.
+     *
+     * @param player The {@link Player} to open the inventory for.
+     * @throws IllegalStateException If the inventory was not created.
+     */
+    @Override
+    public void open(Player player) throws IllegalStateException {
+        player.openInventory(getInventory(player));
+    }
+
+    /**
+     * Returns the instance of the provided {@link Player}, creating it if they do not have one.
+     *
+     * @param player The {@link Player} owning the instance.
+     * @return The {@link Inventory} of the player.
+     * @throws IllegalStateException If the inventory was not created.
+     */
+    public Inventory getInventory(Player player) throws IllegalStateException {
+        if (base == null) {
+            throw new IllegalStateException("inventory was not created");
+        }
+
+        Inventory instance = instances.get(player.getUniqueId());
+        if (instance == null) {
+            instance = type == InventoryType.CHEST ? InventoryPool.acquire(size, instanceTitle) : InventoryPool.acquire(type, instanceTitle);
+            instance.setContents(base);
+            SlotOverlay overlay = overlays.get(player.getUniqueId());
+            if (overlay != null) {
+                overlay.applyTo(instance);
+            }
+            renderer.accept(player, instance);
+
+            instances.put(player.getUniqueId(), instance);
+            InventoryManager.bind(instance, this);
+        }
+        return instance;
+    }
+
+    /**
+     * Overrides the slot at the provided index for a single player, leaving the base layout and the instances of other
+     * players untouched. The slot is written to the player's instance right away if they have one, and every time it
+     * is filled afterwards. Must be called from the main thread.
+     *
+     * @param player The {@link Player} seeing the item.
+     * @param index The index of the slot, starting from 0.
+     * @param itemStack The {@link ItemStack} to be shown, null for an empty slot.
+     * @return {@link InstancedInventory}
+     * @throws IllegalArgumentException If the index is negative.
+     */
+    public InstancedInventory setSlot(Player player, int index, ItemStack itemStack) throws IllegalArgumentException {
+        if (index < 0) {
+            throw new IllegalArgumentException("invalid slot");
+        }
+        overlays.computeIfAbsent(player.getUniqueId(), id -> new SlotOverlay()).set(index, itemStack);
+
+        Inventory instance = instances.get(player.getUniqueId());
+        if (instance != null && index < instance.getSize()) {
+            instance.setItem(index, itemStack);
+        }
+        return this;
+    }
+
+    /**
+     * Removes the override of {@link #setSlot(Player, int, ItemStack)}, so the player sees the base layout again.
+     * Must be called from the main thread.
+     *
+     * @param player The {@link Player} seeing the item.
+     * @param index The index of the slot, starting from 0.
+     * @return {@link InstancedInventory}
+     */
+    public InstancedInventory resetSlot(Player player, int index) {
+        SlotOverlay overlay = overlays.get(player.getUniqueId());
+        if (overlay == null || !overlay.remove(index)) {
+            return this;
+        }
+        if (overlay.size() == 0) {
+            overlays.remove(player.getUniqueId());
+        }
+
+        Inventory instance = instances.get(player.getUniqueId());
+        if (instance != null && base != null && index < instance.getSize()) {
+            instance.setItem(index, index < base.length ? base[index] : null);
+        }
+        return this;
+    }
+
+    /**
+     * Removes every override of the provided player.
+     *
+     * @param player The {@link UUID} of the player.
+     */
+    public void forget(UUID player) {
+        overlays.remove(player);
+    }
+
+    /**
+     * Removes the overrides of the provided player from every instanced inventory. Called when the player quits.
+     *
+     * @param player The {@link UUID} of the player.
+     */
+    public static void forgetAll(UUID player) {
+        for (InstancedInventory template : templates) {
+            template.forget(player);
+        }
+    }
+
+    /**
+     * Returns the items the provided player sees, the base layout merged with their overrides. The returned list is a
+     * read-only view, neither the base layout nor the overrides are copied.
+     *
+     * @param player The {@link Player} seeing the items.
+     * @return A {@link List} of {@link ItemStack}
+     * @throws IllegalStateException If the inventory was not created.
+     */
+    public List<ItemStack> getItems(Player player) throws IllegalStateException {
+        if (base == null) {
+            throw new IllegalStateException("inventory was not created");
+        }
+
+        ItemStack[] layout = base;
+        SlotOverlay overlay = overlays.get(player.getUniqueId());
+        if (overlay == null) {
+            return Collections.unmodifiableList(Arrays.asList(layout));
+        }
+        return new AbstractList<>() {
+            @Override
+            public ItemStack get(int index) {
+                Objects.checkIndex(index, layout.length);
+                return overlay.get(index, layout);
+            }
+
+            @Override
+            public int size() {
+                return layout.length;
+            }
+        };
+    }
+
+    /**
+     * Returns the amount of slots overridden for the provided player.
+     *
+     * @param player The {@link UUID} of the player.
+     * @return The amount of overridden slots.
+     */
+    public int getOverrideCount(UUID player) {
+        SlotOverlay overlay = overlays.get(player);
+        return overlay == null ? 0 : overlay.size();
+    }
+
+    /**
+     * Closes every instance regardless of the viewer(s).
+     */
+    @Override
+    public void close() {
+        for (Inventory instance : new ArrayList<>(instances.values())) {
+            instance.close();
+        }
+    }
+
+    /**
+     * Returns the base layout of the instances.
+     * @return A {@link List} of {@link ItemStack}
+     */
+    @Override
+    public List<ItemStack> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the amount of instances currently in use.
+     * @return The amount of instances.
+     */
+    public int getInstanceCount() {
+        return instances.size();
+    }
+
+    private void onInstanceClose(InventoryCloseEvent event) {
+        UUID id = event.getPlayer().getUniqueId();
+        Inventory instance = instances.get(id);
+        if (instance == null || instance != event.getInventory()) {
+            return;
+        }
+
+        // the closing player is still a viewer during the event, release the instance on the next tick
+        Bukkit.getScheduler().runTask(EasyGUI.getInstance(), () -> {
+            if (instances.get(id) == instance && instance.getViewers().isEmpty()) {
+                instances.remove(id);
+                InventoryManager.unbind(instance);
+                InventoryPool.release(instance, instanceTitle);
+            }
+        });
+    }
+
+}
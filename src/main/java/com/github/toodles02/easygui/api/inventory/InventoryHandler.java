@@ -1,27 +1,85 @@
 package com.github.toodles02.easygui.api.inventory;
 
+import com.github.toodles02.easygui.api.manager.InventoryManager;
+import com.github.toodles02.easygui.api.manager.ListenerManager;
+import org.bukkit.event.Cancellable;
 import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.inventory.*;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
  * A handler for handling inventory events, found in {@link VanillaInventory}.
+ * <p>
+ * Every supported event type holds an ordered array of handlers, sorted by {@link EventPriority} from
+ * {@link EventPriority#LOWEST} to {@link EventPriority#MONITOR}. The event type of a concrete event class is resolved
+ * once and cached, so handling an event is a table lookup followed by a loop over the handlers.
  */
 public class InventoryHandler {
 
-    private Consumer<InventoryOpenEvent> openEventHandler = event -> {};
-    private Consumer<InventoryCloseEvent> closeEventHandler = event -> {};
-    private Consumer<InventoryClickEvent> clickEventHandler = event -> {};
+    /**
+     * The supported event types, the index of an event type is its index in the dispatch table.
+     */
+    private static final List<Class<? extends Event>> events = List.of(
+            InventoryOpenEvent.class,
+            InventoryCloseEvent.class,
+            InventoryClickEvent.class,
+            InventoryDragEvent.class,
+            InventoryMoveItemEvent.class,
+            InventoryCreativeEvent.class,
+            InventoryPickupItemEvent.class
+    );
+
+    /**
+     * Resolves a concrete event class to the index of the closest supported event type, or -1 if it has none.
+     */
+    private static final ClassValue<Integer> indexes = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            for (Class<?> eClass = type; eClass != null; eClass = eClass.getSuperclass()) {
+                int index = events.indexOf(eClass);
+                if (index != -1) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    };
+
+    private static final int click = events.indexOf(InventoryClickEvent.class);
 
-    private Consumer<InventoryDragEvent> dragEventHandler = event -> {};
-    private Consumer<InventoryMoveItemEvent> moveItemEventHandler = event -> {};
-    private Consumer<InventoryCreativeEvent> creativeEventHandler = event -> {};
-    private Consumer<InventoryPickupItemEvent> pickupItemEventHandler = event -> {};
+    private static final Entry[] empty = new Entry[0];
 
+    private final Entry[][] table = new Entry[events.size()][];
 
     /**
-     * Sets the handler of the provided event type.
+     * The click handlers indexed by raw slot, null for slots without a handler.
+     */
+    private Consumer<InventoryClickEvent>[] slotHandlers = newSlotHandlers(0);
+
+    /**
+     * The amount of click limiters of the inventory, which need the click listener even without a click handler.
+     */
+    private int clickLimiters = 0;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Consumer<InventoryClickEvent>[] newSlotHandlers(int length) {
+        return new Consumer[length];
+    }
+
+    /**
+     * Creates an {@link InventoryHandler} without any handlers.
+     */
+    public InventoryHandler() {
+        Arrays.fill(table, empty);
+    }
+
+
+    /**
+     * Sets the handler of the provided event type, replacing all handlers previously added for it.
      * <p>
      * Supported inventory events:
      * <ul>
@@ -39,25 +97,146 @@ public class InventoryHandler {
      * @param <T> The type of inventory event which extends {@link Event}.
      * @throws IllegalArgumentException If the event type is not a supported inventory event.
      */
-    @SuppressWarnings("unchecked")
     public <T extends Event> void setHandler(Class<T> eClass, Consumer<T> handler) throws IllegalArgumentException {
-        if (eClass.isAssignableFrom(InventoryOpenEvent.class)) {
-            openEventHandler = (Consumer<InventoryOpenEvent>) handler;
-        } else if (eClass.isAssignableFrom(InventoryCloseEvent.class)) {
-            closeEventHandler = (Consumer<InventoryCloseEvent>) handler;
-        } else if (eClass.isAssignableFrom(InventoryClickEvent.class)) {
-            clickEventHandler = (Consumer<InventoryClickEvent>) handler;
-        } else if (eClass.isAssignableFrom(InventoryDragEvent.class)) {
-            dragEventHandler = (Consumer<InventoryDragEvent>) handler;
-        } else if (eClass.isAssignableFrom(InventoryMoveItemEvent.class)) {
-            moveItemEventHandler = (Consumer<InventoryMoveItemEvent>) handler;
-        } else if (eClass.isAssignableFrom(InventoryCreativeEvent.class)) {
-            creativeEventHandler = (Consumer<InventoryCreativeEvent>) handler;
-        } else if (eClass.isAssignableFrom(InventoryPickupItemEvent.class)) {
-            pickupItemEventHandler = (Consumer<InventoryPickupItemEvent>) handler;
+        int index = indexOf(eClass);
+        table[index] = new Entry[] {new Entry(handler, EventPriority.NORMAL, false)};
+        ListenerManager.require(events.get(index));
+    }
+
+    /**
+     * Adds a handler of the provided event type, keeping the handlers already set for it.
+     * <p>
+     * Handlers run from {@link EventPriority#LOWEST} to {@link EventPriority#MONITOR}, handlers of the same priority run
+     * in the order they were added. See {@link #setHandler(Class, Consumer)} for the supported inventory events.
+     *
+     * @param eClass The type of class for the event.
+     * @param handler The handler that will handle the event.
+     * @param priority The {@link EventPriority} of the handler.
+     * @param ignoreCancelled If true, the handler is skipped once a handler before it cancelled the event.
+     * @param <T> The type of inventory event which extends {@link Event}.
+     * @throws IllegalArgumentException If the event type is not a supported inventory event.
+     */
+    public <T extends Event> void addHandler(Class<T> eClass, Consumer<T> handler, EventPriority priority, boolean ignoreCancelled) throws IllegalArgumentException {
+        int index = indexOf(eClass);
+        Entry[] entries = table[index];
+
+        int position = entries.length;
+        while (position > 0 && entries[position - 1].priority.getSlot() > priority.getSlot()) {
+            position--;
+        }
+
+        Entry[] copy = new Entry[entries.length + 1];
+        System.arraycopy(entries, 0, copy, 0, position);
+        copy[position] = new Entry(handler, priority, ignoreCancelled);
+        System.arraycopy(entries, position, copy, position + 1, entries.length - position);
+
+        table[index] = copy;
+        ListenerManager.require(events.get(index));
+    }
+
+    /**
+     * Adds a handler of the provided event type, keeping the handlers already set for it.
+     * See {@link #addHandler(Class, Consumer, EventPriority, boolean)} for more information.
+     *
+     * @param eClass The type of class for the event.
+     * @param handler The handler that will handle the event.
+     * @param priority The {@link EventPriority} of the handler.
+     * @param <T> The type of inventory event which extends {@link Event}.
+     * @throws IllegalArgumentException If the event type is not a supported inventory event.
+     */
+    public <T extends Event> void addHandler(Class<T> eClass, Consumer<T> handler, EventPriority priority) throws IllegalArgumentException {
+        addHandler(eClass, handler, priority, false);
+    }
+
+    /**
+     * Removes a handler of the provided event type. Once the last handler of the event type is removed, its listener
+     * is unregistered if no other inventory uses it.
+     *
+     * @param eClass The type of class for the event.
+     * @param handler The handler to be removed.
+     * @param <T> The type of inventory event which extends {@link Event}.
+     * @throws IllegalArgumentException If the event type is not a supported inventory event.
+     */
+    public <T extends Event> void removeHandler(Class<T> eClass, Consumer<T> handler) throws IllegalArgumentException {
+        int index = indexOf(eClass);
+        Entry[] entries = table[index];
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].handler == handler) {
+                Entry[] copy = new Entry[entries.length - 1];
+                System.arraycopy(entries, 0, copy, 0, i);
+                System.arraycopy(entries, i + 1, copy, i, entries.length - i - 1);
+                table[index] = copy;
+                if (copy.length == 0) {
+                    // the listener may not be needed anymore
+                    ListenerManager.update(InventoryManager.getInventories());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counts a click limiter of the inventory, so the {@link InventoryClickEvent} is listened to even without a click
+     * handler, see {@link VanillaInventory#setClickLimit(int, double)}.
+     */
+    void addClickLimiter() {
+        clickLimiters++;
+        ListenerManager.require(InventoryClickEvent.class);
+    }
+
+    /**
+     * Sets the handler of the {@link InventoryClickEvent} for a single slot, replacing the handler previously set for it.
+     * <p>
+     * Slot handlers run after the handlers of the {@link InventoryClickEvent}, and only for clicks on their raw slot.
+     *
+     * @param rawSlot The raw slot, starting from 0, see {@link InventoryClickEvent#getRawSlot()}.
+     * @param handler The handler that will handle clicks on the slot, null to remove it.
+     * @throws IllegalArgumentException If the slot is negative.
+     */
+    public void setSlotHandler(int rawSlot, Consumer<InventoryClickEvent> handler) throws IllegalArgumentException {
+        if (rawSlot < 0) {
+            throw new IllegalArgumentException("invalid slot");
+        }
+
+        Consumer<InventoryClickEvent>[] handlers = slotHandlers;
+        if (rawSlot >= handlers.length) {
+            if (handler == null) {
+                return;
+            }
+            handlers = Arrays.copyOf(handlers, rawSlot + 1);
         } else {
-            throw new IllegalArgumentException("invalid event type");
+            handlers = handlers.clone();
+        }
+        handlers[rawSlot] = handler;
+        slotHandlers = handlers;
+
+        if (handler != null) {
+            ListenerManager.require(InventoryClickEvent.class);
+        }
+    }
+
+    /**
+     * Returns whether a handler was set for the provided event type.
+     *
+     * @param eClass The type of class for the event.
+     * @return True if a handler was set for the event type.
+     */
+    public boolean handles(Class<? extends Event> eClass) {
+        int index = indexes.get(eClass);
+        if (index == -1) {
+            return false;
+        }
+        if (index == click) {
+            if (clickLimiters > 0) {
+                return true;
+            }
+            for (Consumer<InventoryClickEvent> handler : slotHandlers) {
+                if (handler != null) {
+                    return true;
+                }
+            }
         }
+        return table[index].length > 0;
     }
 
 
@@ -80,26 +259,70 @@ public class InventoryHandler {
      * @throws IllegalArgumentException If the provided event type is not supported.
      */
     public <T extends Event> void handle(T event) throws IllegalArgumentException {
+        int index = indexes.get(event.getClass());
+        if (index == -1) {
+            throw new IllegalArgumentException("invalid event type");
+        }
 
-        Class<? extends Event> eClass = event.getClass();
-
-        if (eClass.isAssignableFrom(InventoryOpenEvent.class)) {
-            openEventHandler.accept((InventoryOpenEvent) event);
-        } else if (eClass.isAssignableFrom(InventoryCloseEvent.class)) {
-            closeEventHandler.accept((InventoryCloseEvent) event);
-        } else if (eClass.isAssignableFrom(InventoryClickEvent.class)) {
-            clickEventHandler.accept((InventoryClickEvent) event);
-        } else if (eClass.isAssignableFrom(InventoryDragEvent.class)) {
-            dragEventHandler.accept((InventoryDragEvent) event);
-        } else if (eClass.isAssignableFrom(InventoryMoveItemEvent.class)) {
-            moveItemEventHandler.accept((InventoryMoveItemEvent) event);
-        } else if (eClass.isAssignableFrom(InventoryCreativeEvent.class)) {
-            creativeEventHandler.accept((InventoryCreativeEvent) event);
-        } else if (eClass.isAssignableFrom(InventoryPickupItemEvent.class)) {
-            pickupItemEventHandler.accept((InventoryPickupItemEvent) event);
-        } else {
+        Cancellable cancellable = event instanceof Cancellable ? (Cancellable) event : null;
+        for (Entry entry : table[index]) {
+            if (entry.ignoreCancelled && cancellable != null && cancellable.isCancelled()) {
+                continue;
+            }
+            entry.handler.accept(event);
+        }
+
+        if (index == click) {
+            int rawSlot = ((InventoryClickEvent) event).getRawSlot();
+            Consumer<InventoryClickEvent>[] handlers = slotHandlers;
+            if (rawSlot >= 0 && rawSlot < handlers.length && handlers[rawSlot] != null) {
+                handlers[rawSlot].accept((InventoryClickEvent) event);
+            }
+        }
+    }
+
+    /**
+     * Returns the supported event types, in the order of their index.
+     *
+     * @return An immutable list of the supported event types.
+     */
+    public static List<Class<? extends Event>> getEventTypes() {
+        return events;
+    }
+
+    /**
+     * Returns the index of the supported event type the provided event class is handled as, see {@link #getEventTypes()}.
+     *
+     * @param eClass The event class, may be a subclass of a supported event type.
+     * @return The index of the event type, or -1 if it is not supported.
+     */
+    public static int getEventIndex(Class<?> eClass) {
+        return indexes.get(eClass);
+    }
+
+    private static int indexOf(Class<? extends Event> eClass) throws IllegalArgumentException {
+        int index = indexes.get(eClass);
+        if (index == -1) {
             throw new IllegalArgumentException("invalid event type");
         }
+        return index;
+    }
+
+    /**
+     * A handler added for an event type.
+     */
+    private static final class Entry {
+
+        private final Consumer<Event> handler;
+        private final EventPriority priority;
+        private final boolean ignoreCancelled;
+
+        @SuppressWarnings("unchecked")
+        private Entry(Consumer<? extends Event> handler, EventPriority priority, boolean ignoreCancelled) {
+            this.handler = (Consumer<Event>) handler;
+            this.priority = priority;
+            this.ignoreCancelled = ignoreCancelled;
+        }
     }
 
 
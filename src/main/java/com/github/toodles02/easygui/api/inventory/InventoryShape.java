@@ -1,23 +1,26 @@
 package com.github.toodles02.easygui.api.inventory;
 
-import org.bukkit.entity.Item;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * A util for setting item slots and creating unique shapes fast for {@link VanillaInventory}.
  */
 public class InventoryShape {
 
-    private final LinkedHashMap<Integer, String> shapes = new LinkedHashMap<>();
+    private final String[] shapes;
     private final Map<Character, ItemStack> shapeMap = new HashMap<>();
 
-    private final Pattern pattern = Pattern.compile("[A-Za-z]{9}");
+    /**
+     * The letters used by the shape, one bit per letter, see {@link #bit(char)}.
+     */
+    private long letters = 0;
+
+    private CompiledShape compiled = null;
+
     private final int rows;
 
     /**
@@ -32,6 +35,7 @@ public class InventoryShape {
         }
 
         this.rows = rows;
+        this.shapes = new String[rows];
     }
 
     /**
@@ -51,15 +55,27 @@ public class InventoryShape {
      * @param row The row to be shaped.
      */
     public void setShape(String shape, int row) {
-        Matcher matcher = pattern.matcher(shape);
-        if (!matcher.matches()) {
+        if (shape.length() != 9) {
             throw new IllegalArgumentException("invalid shape format");
         }
-        if (shape.length() > 9 || shape.length() < 1) {
-            throw new IllegalArgumentException("invalid shape format");
+        for (int i = 0; i < shape.length(); i++) {
+            if (bit(shape.charAt(i)) == 0) {
+                throw new IllegalArgumentException("invalid shape format");
+            }
         }
         if (row <= rows && row > 0) {
-            shapes.put(row, shape);
+            shapes[row - 1] = shape;
+            compiled = null;
+
+            letters = 0;
+            for (String rowShape : shapes) {
+                if (rowShape == null) {
+                    continue;
+                }
+                for (int i = 0; i < rowShape.length(); i++) {
+                    letters |= bit(rowShape.charAt(i));
+                }
+            }
         }
     }
 
@@ -69,9 +85,11 @@ public class InventoryShape {
      * @return Returns the full shape of all the rows
      */
     public String getShape() {
-        StringBuilder builder = new StringBuilder();
-        for (String shape : shapes.values()) {
-            builder.append(shape);
+        StringBuilder builder = new StringBuilder(rows * 9);
+        for (String shape : shapes) {
+            if (shape != null) {
+                builder.append(shape);
+            }
         }
         return builder.toString();
     }
@@ -84,15 +102,10 @@ public class InventoryShape {
      * @param item The {@link ItemStack} that will correspond with the letter.
      */
     public void map(char letter, ItemStack item) {
-        String shape = getShape();
-        for (int i = 0; i < shape.length(); i++) {
-            char foundLetter = shape.charAt(i);
-            if (foundLetter == letter) {
-                shapeMap.put(letter, item);
-                return;
-            }
+        if ((letters & bit(letter)) == 0) {
+            throw new IllegalArgumentException("Letter not found in shape: " + letter);
         }
-        throw new IllegalArgumentException("Letter not found in shape: " + letter);
+        shapeMap.put(letter, item);
     }
 
     /**
@@ -120,11 +133,18 @@ public class InventoryShape {
      * @return The number of occurrences of the letter in the shape.
      */
     public int findAmount(char letter) {
-        String shape = getShape();
+        if ((letters & bit(letter)) == 0) {
+            return 0;
+        }
         int a = 0;
-        for (int i = 0; i < shape.length(); i++) {
-            if (shape.charAt(i) == letter) {
-                a++;
+        for (String shape : shapes) {
+            if (shape == null) {
+                continue;
+            }
+            for (int i = 0; i < shape.length(); i++) {
+                if (shape.charAt(i) == letter) {
+                    a++;
+                }
             }
         }
         return a;
@@ -136,16 +156,44 @@ public class InventoryShape {
      */
 
     public Map<Integer, ItemStack> getItems() {
-        Map<Integer, ItemStack> map = new HashMap<>();
-        String shape = getShape();
-        for (int i = 0; i < shape.length(); i++) {
-            if (shapeMap.get(shape.charAt(i)) == null) {
-                throw new IllegalStateException("character is not set in shape");
+        CompiledShape compiled = compile();
+        Map<Integer, ItemStack> map = new LinkedHashMap<>();
+        for (int i = 0; i < compiled.getSize(); i++) {
+            ItemStack item = compiled.getItem(i);
+            if (item != null) {
+                map.put(i, item);
             }
-            map.put(i, shapeMap.get(shape.charAt(i)));
         }
 
         return map;
     }
 
+    /**
+     * Compiles this shape into an immutable {@link CompiledShape}.
+     * <p>
+     * The compiled shape is cached until a row or a mapping of this shape changes, and shapes with identical rows
+     * share their slot tables.
+     *
+     * @return The {@link CompiledShape} of this shape.
+     * @throws IllegalStateException If a letter of the shape is not mapped to an {@link ItemStack}.
+     */
+    public CompiledShape compile() throws IllegalStateException {
+        CompiledShape compiled = this.compiled;
+        if (compiled == null || !compiled.matches(shapeMap)) {
+            compiled = new CompiledShape(rows, shapes, shapeMap);
+            this.compiled = compiled;
+        }
+        return compiled;
+    }
+
+    private static long bit(char letter) {
+        if (letter >= 'A' && letter <= 'Z') {
+            return 1L << (letter - 'A');
+        }
+        if (letter >= 'a' && letter <= 'z') {
+            return 1L << (letter - 'a' + 26);
+        }
+        return 0;
+    }
+
 }
@@ -0,0 +1,97 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import com.github.toodles02.easygui.EasyGUI;
+import com.github.toodles02.easygui.api.manager.BuildManager;
+import org.bukkit.Bukkit;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * A staged build of the items of a {@link VanillaInventory}, see {@link VanillaInventory#setSlot(int, Supplier, ItemStack)}.
+ * <p>
+ * Every item factory runs once on the worker threads of the {@link BuildManager}, even if it fills several slots.
+ * Once all of them finished, their items are committed on the main thread in a single batch.
+ */
+public final class ItemBuild {
+
+    private final VanillaInventory target;
+    private final List<Supplier<ItemStack>> factories;
+    private final List<int[]> slots;
+    private final CompletableFuture<?>[] futures;
+
+    private volatile boolean cancelled = false;
+    private boolean done = false;
+
+    ItemBuild(VanillaInventory target, List<Supplier<ItemStack>> factories, List<int[]> slots) {
+        this.target = target;
+        this.factories = factories;
+        this.slots = slots;
+        this.futures = new CompletableFuture<?>[factories.size()];
+    }
+
+    void start() {
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.supplyAsync(factories.get(i), BuildManager.getExecutor());
+        }
+
+        CompletableFuture.allOf(futures).whenComplete((result, throwable) -> {
+            if (!cancelled) {
+                Bukkit.getScheduler().runTask(EasyGUI.getInstance(), this::commit);
+            }
+        });
+    }
+
+    private void commit() {
+        if (cancelled) {
+            return;
+        }
+
+        for (int i = 0; i < futures.length; i++) {
+            ItemStack item;
+            try {
+                item = (ItemStack) futures[i].join();
+            } catch (RuntimeException e) {
+                EasyGUI.getInstance().getLogger().log(Level.WARNING, "failed to build item of " + target.getKey(), e);
+                continue;
+            }
+            for (int slot : slots.get(i)) {
+                target.setSlot(slot, item);
+            }
+        }
+        target.flush();
+        done = true;
+    }
+
+    /**
+     * Cancels the build. Items that were not committed yet keep their placeholder.
+     */
+    public void cancel() {
+        cancelled = true;
+        for (CompletableFuture<?> future : futures) {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the build was cancelled.
+     * @return True if the build was cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns whether the items of the build were committed.
+     * @return True if the build finished.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+}
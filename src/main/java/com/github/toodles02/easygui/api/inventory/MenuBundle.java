@@ -0,0 +1,334 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A precompiled bundle of {@link MenuDefinition} objects in a single binary file, read through a memory mapping.
+ * <p>
+ * The bundle holds a table of strings (keys, titles and action names), a table of serialized items and the menus.
+ * Equal strings and equal items are stored once, no matter how many menus use them. A menu is stored as the letter of
+ * every slot and the item and action of every letter. The menus are sorted by key, so opening a bundle only maps the
+ * file, and a menu is looked up by a binary search and decoded the first time it is accessed. Decoded items are shared
+ * by all menus of the bundle.
+ * <pre>
+ * header:  magic, version, string count, item count, menu count, source fingerprint
+ * index:   offset and length of every string, offset and length of every item, key and offset of every menu
+ * menu:    key, title, rows, rows * 9 letters, letter count, then letter, item and action (-1 for none) per letter
+ * </pre>
+ */
+public final class MenuBundle {
+
+    /**
+     * The magic number every bundle starts with, "EGMB".
+     */
+    private static final int magic = 0x45474D42;
+    private static final int version = 2;
+    private static final int headerSize = 5 * 4 + 8;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int itemCount;
+    private final int menuCount;
+    private final long source;
+
+    private final AtomicReferenceArray<ItemStack> items;
+    private final Map<NamespacedKey, MenuDefinition> definitions = new ConcurrentHashMap<>();
+
+    private MenuBundle(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < headerSize || buffer.getInt(0) != magic || buffer.getInt(4) != version) {
+            throw new IOException("invalid menu bundle");
+        }
+        this.stringCount = buffer.getInt(8);
+        this.itemCount = buffer.getInt(12);
+        this.menuCount = buffer.getInt(16);
+        this.source = buffer.getLong(20);
+        this.items = new AtomicReferenceArray<>(itemCount);
+    }
+
+    /**
+     * Maps a bundle file into memory. Only the header is read.
+     *
+     * @param file The bundle file written by {@link #write(Path, Collection)}.
+     * @return The {@link MenuBundle}.
+     * @throws IOException If the file can not be mapped, or is not a bundle.
+     */
+    public static MenuBundle open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MenuBundle(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads the source fingerprint of a bundle file without mapping it, see {@link #getSource()}.
+     *
+     * @param file The bundle file.
+     * @return The fingerprint, 0 if none was written.
+     * @throws IOException If the file can not be read, or is not a bundle.
+     */
+    public static long readSource(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            if (header.hasRemaining() || header.getInt(0) != magic || header.getInt(4) != version) {
+                throw new IOException("invalid menu bundle");
+            }
+            return header.getLong(20);
+        }
+    }
+
+    /**
+     * Writes the provided definitions to a bundle file, replacing it atomically if it exists.
+     * Must be called from the main thread, as the items are serialized.
+     *
+     * @param file The bundle file.
+     * @param definitions The definitions to be bundled, with distinct keys.
+     * @throws IOException If the file can not be written.
+     */
+    public static void write(Path file, Collection<MenuDefinition> definitions) throws IOException {
+        write(file, definitions, 0);
+    }
+
+    /**
+     * Writes the provided definitions to a bundle file, replacing it atomically if it exists.
+     * Must be called from the main thread, as the items are serialized.
+     *
+     * @param file The bundle file.
+     * @param definitions The definitions to be bundled, with distinct keys.
+     * @param source A fingerprint of the files the definitions were loaded from, see {@link #getSource()}.
+     * @throws IOException If the file can not be written.
+     */
+    public static void write(Path file, Collection<MenuDefinition> definitions, long source) throws IOException {
+        List<MenuDefinition> sorted = new ArrayList<>(definitions);
+        sorted.sort(Comparator.comparing(definition -> definition.getKey().toString()));
+
+        List<byte[]> strings = new ArrayList<>();
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<byte[]> itemBytes = new ArrayList<>();
+        Map<ByteBuffer, Integer> itemIndexes = new HashMap<>();
+
+        ByteArrayOutputStream menus = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(menus);
+        int[] menuKeys = new int[sorted.size()];
+        int[] menuOffsets = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            MenuDefinition definition = sorted.get(i);
+            CompiledShape shape = definition.getShape();
+            menuKeys[i] = intern(definition.getKey().toString(), strings, stringIndexes);
+            menuOffsets[i] = out.size();
+
+            out.writeInt(menuKeys[i]);
+            out.writeInt(intern(GsonComponentSerializer.gson().serialize(definition.getTitle()), strings, stringIndexes));
+            out.writeByte(shape.getRows());
+            for (int slot = 0; slot < shape.getSize(); slot++) {
+                out.writeByte(shape.getLetter(slot));
+            }
+
+            char[] letters = shape.getLetters();
+            out.writeByte(letters.length);
+            for (char letter : letters) {
+                byte[] item = shape.getItem(shape.getSlots(letter)[0]).serializeAsBytes();
+                Integer itemIndex = itemIndexes.get(ByteBuffer.wrap(item));
+                if (itemIndex == null) {
+                    itemIndex = itemBytes.size();
+                    itemBytes.add(item);
+                    itemIndexes.put(ByteBuffer.wrap(item), itemIndex);
+                }
+                String action = definition.getActions().get(letter);
+
+                out.writeByte(letter);
+                out.writeInt(itemIndex);
+                out.writeInt(action == null ? -1 : intern(action, strings, stringIndexes));
+            }
+        }
+
+        int indexSize = (strings.size() + itemBytes.size() + sorted.size()) * 8;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(bytes);
+        header.writeInt(magic);
+        header.writeInt(version);
+        header.writeInt(strings.size());
+        header.writeInt(itemBytes.size());
+        header.writeInt(sorted.size());
+        header.writeLong(source);
+
+        int offset = headerSize + indexSize;
+        for (byte[] string : strings) {
+            header.writeInt(offset);
+            header.writeInt(string.length);
+            offset += string.length;
+        }
+        for (byte[] item : itemBytes) {
+            header.writeInt(offset);
+            header.writeInt(item.length);
+            offset += item.length;
+        }
+        for (int i = 0; i < sorted.size(); i++) {
+            header.writeInt(menuKeys[i]);
+            header.writeInt(offset + menuOffsets[i]);
+        }
+        for (byte[] string : strings) {
+            header.write(string);
+        }
+        for (byte[] item : itemBytes) {
+            header.write(item);
+        }
+        menus.writeTo(header);
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, bytes.toByteArray());
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int intern(String string, List<byte[]> strings, Map<String, Integer> indexes) {
+        return indexes.computeIfAbsent(string, s -> {
+            strings.add(s.getBytes(StandardCharsets.UTF_8));
+            return strings.size() - 1;
+        });
+    }
+
+    /**
+     * Returns the definition of the provided key, decoding it on the first access. Can be called from any thread.
+     *
+     * @param key The {@link NamespacedKey} of the menu.
+     * @return The {@link MenuDefinition}, null if the bundle has no menu with that key.
+     */
+    public MenuDefinition getDefinition(NamespacedKey key) {
+        MenuDefinition definition = definitions.get(key);
+        if (definition != null) {
+            return definition;
+        }
+
+        int menu = find(key.toString());
+        if (menu < 0) {
+            return null;
+        }
+        return definitions.computeIfAbsent(key, k -> decode(k, buffer.getInt(menuIndex(menu) + 4)));
+    }
+
+    /**
+     * Returns the keys of all menus of the bundle. Decodes every key, so prefer {@link #getDefinition(NamespacedKey)}.
+     *
+     * @return A {@link List} of {@link NamespacedKey}, sorted.
+     */
+    public List<NamespacedKey> getKeys() {
+        List<NamespacedKey> keys = new ArrayList<>(menuCount);
+        for (int i = 0; i < menuCount; i++) {
+            keys.add(NamespacedKey.fromString(string(buffer.getInt(menuIndex(i)))));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the fingerprint of the files the menus were loaded from, so a bundle can be compiled again once they
+     * change.
+     * @return The fingerprint, 0 if none was written.
+     */
+    public long getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the amount of menus in the bundle.
+     * @return The amount of menus.
+     */
+    public int size() {
+        return menuCount;
+    }
+
+    private int find(String key) {
+        int low = 0;
+        int high = menuCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compared = string(buffer.getInt(menuIndex(middle))).compareTo(key);
+            if (compared < 0) {
+                low = middle + 1;
+            } else if (compared > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private MenuDefinition decode(NamespacedKey key, int offset) {
+        int title = buffer.getInt(offset + 4);
+        int rows = buffer.get(offset + 8);
+        int position = offset + 9;
+
+        String[] rowShapes = new String[rows];
+        byte[] row = new byte[9];
+        for (int i = 0; i < rows; i++) {
+            buffer.get(position, row);
+            rowShapes[i] = new String(row, StandardCharsets.US_ASCII);
+            position += 9;
+        }
+
+        int letters = buffer.get(position++);
+        Map<Character, ItemStack> letterItems = new HashMap<>();
+        Map<Character, String> actions = new HashMap<>();
+        for (int i = 0; i < letters; i++) {
+            char letter = (char) buffer.get(position);
+            int item = buffer.getInt(position + 1);
+            int action = buffer.getInt(position + 5);
+            position += 9;
+
+            letterItems.put(letter, item(item));
+            if (action >= 0) {
+                actions.put(letter, string(action));
+            }
+        }
+        return MenuDefinition.of(key, GsonComponentSerializer.gson().deserialize(string(title)), rowShapes, letterItems, actions);
+    }
+
+    private ItemStack item(int index) {
+        ItemStack item = items.get(index);
+        if (item == null) {
+            int entry = headerSize + (stringCount + index) * 8;
+            byte[] bytes = new byte[buffer.getInt(entry + 4)];
+            buffer.get(buffer.getInt(entry), bytes);
+            item = ItemStack.deserializeBytes(bytes);
+            if (!items.compareAndSet(index, null, item)) {
+                item = items.get(index);
+            }
+        }
+        return item;
+    }
+
+    private String string(int index) {
+        int entry = headerSize + index * 8;
+        byte[] bytes = new byte[buffer.getInt(entry + 4)];
+        buffer.get(buffer.getInt(entry), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int menuIndex(int menu) {
+        return headerSize + (stringCount + itemCount + menu) * 8;
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A menu parsed from a declarative definition, see {@link com.github.toodles02.easygui.api.manager.MenuManager}.
+ * <p>
+ * A definition has a {@code type} (chest only, as the menu is shaped), a {@code title} in MiniMessage format, the
+ * {@code rows}, one {@code shape} string per row and the {@code items} of every letter of the shape:
+ * <pre>
+ * type: CHEST
+ * title: "&lt;gold&gt;Shop"
+ * rows: 3
+ * shape:
+ *   - "XXXXXXXXX"
+ *   - "XaXXXXXbX"
+ *   - "XXXXcXXXX"
+ * items:
+ *   X: BLACK_STAINED_GLASS_PANE
+ *   a:
+ *     material: DIAMOND
+ *     amount: 4
+ *     name: "&lt;aqua&gt;Diamonds"
+ *     lore: ["&lt;gray&gt;Click to buy"]
+ *     action: buy-diamonds
+ * </pre>
+ * Items are built and the shape is compiled once when the definition is parsed, so every inventory built from it
+ * shares the same {@link CompiledShape}. Clicks in the built inventories are cancelled, and a letter with an
+ * {@code action} runs the action registered under that name.
+ */
+public final class MenuDefinition {
+
+    private final NamespacedKey key;
+    private final Component title;
+    private final int rows;
+    private final InventoryShape shape;
+    private final Map<Character, String> actions;
+
+    private MenuDefinition(NamespacedKey key, Component title, int rows, InventoryShape shape, Map<Character, String> actions) {
+        this.key = key;
+        this.title = title;
+        this.rows = rows;
+        this.shape = shape;
+        this.actions = actions;
+    }
+
+    /**
+     * Parses a definition. Can be called from any thread.
+     *
+     * @param key The {@link NamespacedKey} the built inventories are registered under.
+     * @param section The {@link ConfigurationSection} holding the definition.
+     * @return The parsed {@link MenuDefinition}.
+     * @throws IllegalArgumentException If the definition is invalid.
+     */
+    public static MenuDefinition parse(NamespacedKey key, ConfigurationSection section) throws IllegalArgumentException {
+        InventoryType type;
+        try {
+            type = InventoryType.valueOf(section.getString("type", "CHEST").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid type");
+        }
+        if (type != InventoryType.CHEST) {
+            throw new IllegalArgumentException("invalid type, only chest menus can be shaped");
+        }
+
+        Component title = MiniMessage.miniMessage().deserialize(section.getString("title", "Default"));
+
+        List<String> rowShapes = section.getStringList("shape");
+        int rows = section.getInt("rows", rowShapes.size());
+        if (rows != rowShapes.size()) {
+            throw new IllegalArgumentException("invalid shape, expected " + rows + " rows");
+        }
+        InventoryShape shape = new InventoryShape(rows);
+        for (int row = 0; row < rows; row++) {
+            shape.setShape(rowShapes.get(row), row + 1);
+        }
+
+        ConfigurationSection items = section.getConfigurationSection("items");
+        if (items == null) {
+            throw new IllegalArgumentException("missing items");
+        }
+        Map<Character, String> actions = new HashMap<>();
+        for (String letter : items.getKeys(false)) {
+            if (letter.length() != 1) {
+                throw new IllegalArgumentException("invalid letter " + letter);
+            }
+            char c = letter.charAt(0);
+            if (items.isConfigurationSection(letter)) {
+                ConfigurationSection item = items.getConfigurationSection(letter);
+                shape.map(c, parseItem(letter, item));
+                String action = item.getString("action");
+                if (action != null) {
+                    actions.put(c, action);
+                }
+            } else {
+                shape.map(c, new ItemStack(parseMaterial(letter, items.getString(letter))));
+            }
+        }
+
+        // fails if a letter of the shape has no item
+        shape.compile();
+        return new MenuDefinition(key, title, rows, shape, Collections.unmodifiableMap(actions));
+    }
+
+    /**
+     * Creates a definition from its parts, used by the {@link MenuBundle}.
+     *
+     * @param key The {@link NamespacedKey} the built inventories are registered under.
+     * @param title The title of the menu.
+     * @param rowShapes The shape of every row.
+     * @param items The item of every letter of the shape.
+     * @param actions The name of the action of every letter with an action.
+     * @return The {@link MenuDefinition}.
+     * @throws IllegalArgumentException If the shape is invalid.
+     */
+    static MenuDefinition of(NamespacedKey key, Component title, String[] rowShapes, Map<Character, ItemStack> items,
+                             Map<Character, String> actions) throws IllegalArgumentException {
+        InventoryShape shape = new InventoryShape(rowShapes.length);
+        for (int row = 0; row < rowShapes.length; row++) {
+            shape.setShape(rowShapes[row], row + 1);
+        }
+        for (Map.Entry<Character, ItemStack> item : items.entrySet()) {
+            shape.map(item.getKey(), item.getValue());
+        }
+        shape.compile();
+        return new MenuDefinition(key, title, rowShapes.length, shape, Collections.unmodifiableMap(new HashMap<>(actions)));
+    }
+
+    private static ItemStack parseItem(String letter, ConfigurationSection section) throws IllegalArgumentException {
+        ItemStack item = new ItemStack(parseMaterial(letter, section.getString("material")), section.getInt("amount", 1));
+
+        String name = section.getString("name");
+        List<String> lore = section.getStringList("lore");
+        int model = section.getInt("model", 0);
+        if (name != null || !lore.isEmpty() || model != 0) {
+            MiniMessage miniMessage = MiniMessage.miniMessage();
+            item.editMeta(meta -> {
+                if (name != null) {
+                    meta.displayName(miniMessage.deserialize(name));
+                }
+                if (!lore.isEmpty()) {
+                    List<Component> lines = new ArrayList<>(lore.size());
+                    for (String line : lore) {
+                        lines.add(miniMessage.deserialize(line));
+                    }
+                    meta.lore(lines);
+                }
+                if (model != 0) {
+                    meta.setCustomModelData(model);
+                }
+            });
+        }
+        return item;
+    }
+
+    private static Material parseMaterial(String letter, String name) throws IllegalArgumentException {
+        Material material = name == null ? null : Material.matchMaterial(name);
+        if (material == null || material.isAir()) {
+            throw new IllegalArgumentException("invalid material of " + letter);
+        }
+        return material;
+    }
+
+    /**
+     * Builds and creates a new inventory from this definition. Must be called from the main thread.
+     *
+     * @param resolver Resolves the name of an action to its handler when a slot with that action is clicked, returns
+     *                 null if there is no such action.
+     * @return The created {@link ShapedInventory}, not registered yet.
+     */
+    public ShapedInventory toInventory(Function<String, Consumer<InventoryClickEvent>> resolver) {
+        ShapedInventory inventory = new ShapedInventory(InventoryType.CHEST, key);
+        inventory.setTitle(title);
+        inventory.setShape(shape);
+        inventory.onClick(event -> event.setCancelled(true));
+        for (Map.Entry<Character, String> action : actions.entrySet()) {
+            String name = action.getValue();
+            inventory.onClick(action.getKey(), event -> {
+                Consumer<InventoryClickEvent> handler = resolver.apply(name);
+                if (handler != null) {
+                    handler.accept(event);
+                }
+            });
+        }
+        inventory.create(rows);
+        return inventory;
+    }
+
+    /**
+     * Returns the {@link NamespacedKey} of the menu.
+     * @return {@link NamespacedKey}.
+     */
+    public NamespacedKey getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the title of the menu.
+     * @return {@link Component}.
+     */
+    public Component getTitle() {
+        return title;
+    }
+
+    /**
+     * Returns the rows of the menu.
+     * @return The amount of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the compiled shape of the menu.
+     * @return {@link CompiledShape}.
+     */
+    public CompiledShape getShape() {
+        return shape.compile();
+    }
+
+    /**
+     * Returns the names of the actions by letter.
+     * @return An unmodifiable {@link Map} of action names.
+     */
+    public Map<Character, String> getActions() {
+        return actions;
+    }
+
+}
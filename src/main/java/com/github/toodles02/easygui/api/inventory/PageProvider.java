@@ -0,0 +1,30 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * A source of items for {@link PaginatedInventory}, queried one page at a time.
+ */
+@FunctionalInterface
+public interface PageProvider {
+
+    /**
+     * Returns the items in the provided range.
+     *
+     * @param offset The index of the first item, starting from 0.
+     * @param limit The maximum amount of items to be returned.
+     * @return The items in the range, fewer than the limit if the source ends within it.
+     */
+    List<ItemStack> fetch(int offset, int limit);
+
+    /**
+     * Returns the total amount of items, if it is known.
+     *
+     * @return The total amount of items, or -1 if it is unknown.
+     */
+    default int size() {
+        return -1;
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link ShapedInventory} showing a large item source one page at a time.
+ * <p>
+ * One letter of the {@link InventoryShape} marks the content area. A page is only fetched from the
+ * {@link PageProvider} when it is viewed, and the most recently viewed pages are kept in a small cache. Changing the
+ * page rewrites the content slots of the same inventory instead of opening a new one. The current page is shown
+ * when the inventory is created. The item mapped to the content
+ * letter fills content slots past the end of the source.
+ */
+public class PaginatedInventory extends ShapedInventory {
+
+    protected final char contentLetter;
+    protected final PageProvider provider;
+
+    protected int[] contentSlots = new int[0];
+    protected ItemStack filler = null;
+
+    protected int page = 0;
+    protected boolean lastPageFull = false;
+
+    protected int cacheSize = 4;
+    protected final Map<Integer, Page> pages = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /**
+     * Creates a {@link PaginatedInventory} of the desired {@link InventoryType} and {@link NamespacedKey}.
+     *
+     * @param type The {@link InventoryType} of this custom inventory.
+     * @param namespace The {@link NamespacedKey} that will be used to register this object. See {@link #register()} for more info.
+     * @param contentLetter The letter of the shape marking the slots the pages are shown in.
+     * @param provider The {@link PageProvider} the pages are fetched from.
+     */
+    public PaginatedInventory(InventoryType type, NamespacedKey namespace, char contentLetter, PageProvider provider) {
+        super(type, namespace);
+        this.contentLetter = contentLetter;
+        this.provider = provider;
+    }
+
+    /**
+     * Sets the amount of rendered pages cached by this inventory. Defaults to 4.
+     *
+     * @param cacheSize The amount of pages, at least 1.
+     * @return {@link PaginatedInventory}
+     * @throws IllegalArgumentException If the amount is less than 1.
+     */
+    public PaginatedInventory setCacheSize(int cacheSize) throws IllegalArgumentException {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("invalid cache size");
+        }
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    @Override
+    protected void applyShape(CompiledShape compiled) {
+        super.applyShape(compiled);
+        contentSlots = compiled.getSlots(contentLetter);
+        filler = shape.getShapeMap().get(contentLetter);
+        pages.clear();
+        show(page);
+    }
+
+    /**
+     * Shows the next page, if there is one.
+     *
+     * @return True if the page changed.
+     */
+    public boolean nextPage() {
+        return hasNextPage() && setPage(page + 1);
+    }
+
+    /**
+     * Shows the previous page, if there is one.
+     *
+     * @return True if the page changed.
+     */
+    public boolean previousPage() {
+        return page > 0 && setPage(page - 1);
+    }
+
+    /**
+     * Shows the provided page.
+     *
+     * @param page The page, starting from 0.
+     * @return True if the page changed, false if it is out of range.
+     */
+    public boolean setPage(int page) {
+        int count = getPageCount();
+        if (page < 0 || (count != -1 && page >= Math.max(count, 1)) || page == this.page) {
+            return false;
+        }
+        show(page);
+        return true;
+    }
+
+    /**
+     * Returns whether there is a page after the current one. If the size of the source is unknown, a full current page
+     * is taken as a sign that there is.
+     *
+     * @return True if there is a next page.
+     */
+    public boolean hasNextPage() {
+        int count = getPageCount();
+        return count == -1 ? lastPageFull : page + 1 < count;
+    }
+
+    /**
+     * Returns the current page, starting from 0.
+     * @return The current page.
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Returns the amount of pages.
+     * @return The amount of pages, or -1 if the size of the source is unknown.
+     */
+    public int getPageCount() {
+        int size = provider.size();
+        if (size < 0 || contentSlots.length == 0) {
+            return -1;
+        }
+        return (size + contentSlots.length - 1) / contentSlots.length;
+    }
+
+    /**
+     * Drops the cached pages and fetches the current page again, e.g. after the source changed.
+     */
+    public void refresh() {
+        pages.clear();
+        show(page);
+    }
+
+    protected void show(int page) {
+        this.page = page;
+        if (contentSlots.length == 0) {
+            return;
+        }
+
+        Page rendered = pages.get(page);
+        if (rendered == null) {
+            rendered = render(page);
+            pages.put(page, rendered);
+        }
+
+        lastPageFull = rendered.full();
+        for (int i = 0; i < contentSlots.length; i++) {
+            setSlot(contentSlots[i], rendered.items()[i]);
+        }
+    }
+
+    protected Page render(int page) {
+        int limit = contentSlots.length;
+        List<ItemStack> fetched = provider.fetch(page * limit, limit);
+
+        ItemStack[] rendered = new ItemStack[limit];
+        for (int i = 0; i < limit; i++) {
+            rendered[i] = i < fetched.size() ? fetched.get(i) : filler;
+        }
+        return new Page(rendered, fetched.size() >= limit);
+    }
+
+    /**
+     * A rendered page, and whether the provider returned a full page for it.
+     *
+     * @param items The items of the content slots.
+     * @param full True if the provider returned as many items as there are content slots.
+     */
+    protected record Page(ItemStack[] items, boolean full) {
+    }
+
+}
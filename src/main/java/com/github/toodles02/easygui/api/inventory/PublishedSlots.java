@@ -0,0 +1,62 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The slot updates published to a live {@link VanillaInventory}, see {@link VanillaInventory#publish(int, ItemStack)}.
+ * <p>
+ * Every slot holds its latest published item, and a slot is queued only when it goes from having no pending item to
+ * having one. Publishing the same slot again before it was applied replaces the item without queueing it again, so
+ * the queue never holds more entries than there are slots. Publishing is lock-free and can be done from any thread.
+ */
+final class PublishedSlots {
+
+    /**
+     * The maximum amount of slots of an inventory.
+     */
+    static final int capacity = 54;
+
+    /**
+     * Stands in for a published null item, as null marks a slot without a pending item.
+     */
+    private static final Object empty = new Object();
+
+    private final AtomicReferenceArray<Object> pending = new AtomicReferenceArray<>(capacity);
+    private final Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Publishes an item, replacing the pending item of the slot.
+     *
+     * @param slot The slot, starting from 0.
+     * @param item The {@link ItemStack}, may be null for an empty slot.
+     */
+    void publish(int slot, ItemStack item) {
+        if (pending.getAndSet(slot, item == null ? empty : item) == null) {
+            queue.add(slot);
+        }
+    }
+
+    /**
+     * Sets the pending item of every queued slot. Must be called from the main thread.
+     *
+     * @param inventory The inventory the items are set in.
+     * @return The amount of slots set.
+     */
+    int apply(VanillaInventory inventory) {
+        int applied = 0;
+        Integer slot;
+        while ((slot = queue.poll()) != null) {
+            Object item = pending.getAndSet(slot, null);
+            if (item != null) {
+                inventory.setSlot(slot, item == empty ? null : (ItemStack) item);
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+}
@@ -2,10 +2,17 @@ package com.github.toodles02.easygui.api.inventory;
 
 import net.kyori.adventure.text.Component;
 import org.bukkit.NamespacedKey;
+import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * A class representing shaped inventories using {@link InventoryShape}.
@@ -18,6 +25,30 @@ public class ShapedInventory extends VanillaInventory {
 
     protected InventoryShape shape = null;
 
+    /**
+     * The click handlers bound to letters of the shape, see {@link #onClick(char, Consumer)}.
+     */
+    protected final Map<Character, Consumer<InventoryClickEvent>> letterHandlers = new HashMap<>();
+
+    /**
+     * The item factories bound to letters of the shape, see {@link #setFactory(char, Supplier)}.
+     */
+    protected final Map<Character, Supplier<ItemStack>> letterFactories = new HashMap<>();
+
+    /**
+     * The frames bound to letters of the shape, see {@link #animate(char, int, ItemStack...)}.
+     */
+    protected final Map<Character, Animation> letterAnimations = new HashMap<>();
+    protected final List<Animation> shapeAnimations = new ArrayList<>();
+
+    /**
+     * The compiled shape applied last, and the slots its letter handlers and factories were bound to, which are
+     * unbound before another shape is applied.
+     */
+    protected CompiledShape appliedShape = null;
+    protected final BitSet boundHandlers = new BitSet();
+    protected final BitSet boundFactories = new BitSet();
+
     /**
      * Creates a {@link VanillaInventory} of the desired {@link InventoryType} and {@link NamespacedKey}.
      *
@@ -53,6 +84,125 @@ public class ShapedInventory extends VanillaInventory {
         return this;
     }
 
+    /**
+     * Sets the handler for the {@link InventoryClickEvent} of every slot of the provided letter in the shape.
+     * The handler is bound to the slots once, when the inventory is created, see {@link #onClick(int, Consumer)}.
+     *
+     * @param letter The letter of the shape to handle clicks for.
+     * @param handler The handler to be set.
+     * @return {@link VanillaInventory}
+     */
+    public VanillaInventory onClick(char letter, Consumer<InventoryClickEvent> handler) {
+        letterHandlers.put(letter, handler);
+        return this;
+    }
+
+    /**
+     * Sets a factory building the item of every slot of the provided letter off the main thread. The item mapped to
+     * the letter in the shape is shown as placeholder until the item is built, and the factory runs once for all
+     * slots of the letter. See {@link #setSlot(int, Supplier, ItemStack)} for more information.
+     *
+     * @param letter The letter of the shape.
+     * @param factory The factory building the {@link ItemStack}, must be safe to call from another thread.
+     * @return {@link VanillaInventory}
+     */
+    public VanillaInventory setFactory(char letter, Supplier<ItemStack> factory) {
+        letterFactories.put(letter, factory);
+        return this;
+    }
+
+    /**
+     * Animates every slot of the provided letter in the shape, showing each frame for the provided amount of ticks.
+     * See {@link #animate(int, int, ItemStack...)} for more information.
+     *
+     * @param letter The letter of the shape.
+     * @param period The ticks each frame is shown for.
+     * @param frames The frames, shown in order and repeated.
+     * @return {@link VanillaInventory}
+     * @throws IllegalArgumentException If the period is less than 1, or there are no frames.
+     */
+    public VanillaInventory animate(char letter, int period, ItemStack... frames) throws IllegalArgumentException {
+        ensureResumeHandler();
+        letterAnimations.put(letter, new Animation(new int[0], period, frames));
+        return this;
+    }
+
+    @Override
+    protected List<Animation> getAnimations() {
+        if (shapeAnimations.isEmpty()) {
+            return animations;
+        }
+        List<Animation> all = new ArrayList<>(animations);
+        all.addAll(shapeAnimations);
+        return all;
+    }
+
+    /**
+     * Copies the items of the compiled shape into this inventory and binds the handlers of
+     * {@link #onClick(char, Consumer)} and the factories of {@link #setFactory(char, Supplier)} to the slots of their letters.
+     * The handlers, factories and items of the shape applied before are removed first.
+     *
+     * @param compiled The {@link CompiledShape} of this inventory's shape.
+     */
+    protected void applyShape(CompiledShape compiled) {
+        for (int slot = boundHandlers.nextSetBit(0); slot >= 0; slot = boundHandlers.nextSetBit(slot + 1)) {
+            handler.setSlotHandler(slot, null);
+        }
+        boundHandlers.clear();
+        for (int slot = boundFactories.nextSetBit(0); slot >= 0; slot = boundFactories.nextSetBit(slot + 1)) {
+            factories.remove(slot);
+        }
+        boundFactories.clear();
+        if (appliedShape != null) {
+            for (int i = 0; i < Math.min(appliedShape.getSize(), items.size()); i++) {
+                if (appliedShape.getItem(i) != null && (i >= compiled.getSize() || compiled.getItem(i) == null)) {
+                    items.set(i, null);
+                }
+            }
+        }
+        appliedShape = compiled;
+
+        for (int i = 0; i < compiled.getSize(); i++) {
+            ItemStack item = compiled.getItem(i);
+            if (item == null) {
+                continue;
+            }
+            while (items.size() <= i) {
+                items.add(null);
+            }
+            items.set(i, item);
+        }
+
+        for (Map.Entry<Character, Consumer<InventoryClickEvent>> entry : letterHandlers.entrySet()) {
+            for (int slot : compiled.getSlots(entry.getKey())) {
+                handler.setSlotHandler(slot, entry.getValue());
+                boundHandlers.set(slot);
+            }
+        }
+
+        for (Map.Entry<Character, Supplier<ItemStack>> entry : letterFactories.entrySet()) {
+            for (int slot : compiled.getSlots(entry.getKey())) {
+                setSlot(slot, entry.getValue(), compiled.getItem(slot));
+                boundFactories.set(slot);
+            }
+        }
+
+        shapeAnimations.clear();
+        for (Map.Entry<Character, Animation> entry : letterAnimations.entrySet()) {
+            Animation animation = entry.getValue();
+            ItemStack[] frames = new ItemStack[animation.getFrameCount()];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = animation.getFrame(i);
+            }
+
+            int[] slots = compiled.getSlots(entry.getKey());
+            shapeAnimations.add(new Animation(slots, animation.getPeriod(), frames));
+            for (int slot : slots) {
+                setSlot(slot, frames[0]);
+            }
+        }
+    }
+
     /**
      * Creates an inventory with this instance's fields including the {@link InventoryType} and title {@link Component} and
      * the provided rows.
@@ -67,9 +217,7 @@ public class ShapedInventory extends VanillaInventory {
         if (rows != getShape().getRows()) {
             throw new IllegalArgumentException("invalid number of rows for this shape");
         }
-        for (Map.Entry<Integer, ItemStack> slot : shape.getItems().entrySet()) {
-            items.add(slot.getKey(), slot.getValue());
-        }
+        applyShape(shape.compile());
         super.create(rows);
         return this;
     }
@@ -83,9 +231,7 @@ public class ShapedInventory extends VanillaInventory {
      */
     @Override
     public VanillaInventory create() {
-        for (Map.Entry<Integer, ItemStack> slot : shape.getItems().entrySet()) {
-            items.add(slot.getKey(), slot.getValue());
-        }
+        applyShape(shape.compile());
         super.create();
         return this;
     }
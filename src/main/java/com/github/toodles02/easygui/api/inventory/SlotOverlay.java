@@ -0,0 +1,108 @@
+package com.github.toodles02.easygui.api.inventory;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * The slots of a single viewer which differ from the base layout of an {@link InstancedInventory}.
+ * <p>
+ * Only the overridden slots are stored, in two parallel arrays sorted by slot, so an overlay costs memory in
+ * proportion to its overridden slots rather than to the size of the inventory. Must only be used from the main thread.
+ */
+final class SlotOverlay {
+
+    private int[] slots = new int[4];
+    private ItemStack[] items = new ItemStack[4];
+    private int size = 0;
+
+    /**
+     * Overrides the provided slot, replacing a previous override.
+     *
+     * @param slot The slot, starting from 0.
+     * @param item The {@link ItemStack} shown instead of the base item, may be null for an empty slot.
+     */
+    void set(int slot, ItemStack item) {
+        int index = Arrays.binarySearch(slots, 0, size, slot);
+        if (index >= 0) {
+            items[index] = item;
+            return;
+        }
+
+        index = -index - 1;
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+            items = Arrays.copyOf(items, size * 2);
+        }
+        System.arraycopy(slots, index, slots, index + 1, size - index);
+        System.arraycopy(items, index, items, index + 1, size - index);
+        slots[index] = slot;
+        items[index] = item;
+        size++;
+    }
+
+    /**
+     * Removes the override of the provided slot.
+     *
+     * @param slot The slot, starting from 0.
+     * @return True if the slot was overridden.
+     */
+    boolean remove(int slot) {
+        int index = Arrays.binarySearch(slots, 0, size, slot);
+        if (index < 0) {
+            return false;
+        }
+
+        System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+        System.arraycopy(items, index + 1, items, index, size - index - 1);
+        items[--size] = null;
+        return true;
+    }
+
+    /**
+     * Returns whether the provided slot is overridden.
+     *
+     * @param slot The slot, starting from 0.
+     * @return True if the slot is overridden.
+     */
+    boolean contains(int slot) {
+        return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+    }
+
+    /**
+     * Returns the item of the provided slot, falling back to the base layout.
+     *
+     * @param slot The slot, starting from 0.
+     * @param base The base layout.
+     * @return The {@link ItemStack} of the slot, may be null.
+     */
+    ItemStack get(int slot, ItemStack[] base) {
+        int index = Arrays.binarySearch(slots, 0, size, slot);
+        if (index >= 0) {
+            return items[index];
+        }
+        return slot < base.length ? base[slot] : null;
+    }
+
+    /**
+     * Writes the overridden slots to the provided inventory.
+     *
+     * @param inventory The {@link Inventory} already filled with the base layout.
+     */
+    void applyTo(Inventory inventory) {
+        int limit = inventory.getSize();
+        for (int i = 0; i < size && slots[i] < limit; i++) {
+            inventory.setItem(slots[i], items[i]);
+        }
+    }
+
+    /**
+     * Returns the amount of overridden slots.
+     * @return The amount of overridden slots.
+     */
+    int size() {
+        return size;
+    }
+
+}
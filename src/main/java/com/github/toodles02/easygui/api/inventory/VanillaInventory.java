@@ -7,17 +7,27 @@ import org.bukkit.NamespacedKey;
 
 
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.inventory.*;
 import org.bukkit.inventory.Inventory;
 
 import org.bukkit.inventory.ItemStack;
+import com.github.toodles02.easygui.api.manager.AnimationManager;
+import com.github.toodles02.easygui.api.manager.BroadcastManager;
+import com.github.toodles02.easygui.api.manager.EvictionManager;
 import com.github.toodles02.easygui.api.manager.InventoryManager;
+import com.github.toodles02.easygui.api.manager.UpdateManager;
 
 import java.util.ArrayList;
 
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * A custom inventory util for creating bukkit inventories fast.
@@ -29,6 +39,51 @@ public class VanillaInventory implements CustomInventory {
     protected final InventoryHandler handler = new InventoryHandler();
     protected Inventory inventory = null;
 
+    /**
+     * The size recorded by {@link #create()} or {@link #create(int)}, 0 if the inventory was not created.
+     */
+    protected int size = 0;
+
+    /**
+     * The ticks without viewers after which a lazy inventory is released, -1 if the inventory is not lazy.
+     */
+    protected long idleTicks = -1;
+
+    /**
+     * The slots changed by {@link #setSlot(int, ItemStack)} since the last {@link #flush()}.
+     */
+    protected final BitSet dirty = new BitSet();
+
+    /**
+     * The item factories of {@link #setSlot(int, Supplier, ItemStack)} by slot.
+     */
+    protected final Map<Integer, Supplier<ItemStack>> factories = new LinkedHashMap<>();
+    protected ItemBuild build = null;
+
+    /**
+     * Whether the close handler cancelling the build was added, see {@link #setSlot(int, Supplier, ItemStack)}.
+     */
+    protected boolean cancelsBuildOnClose = false;
+
+    /**
+     * The animations of {@link #animate(int, int, ItemStack...)}.
+     */
+    protected final List<Animation> animations = new ArrayList<>();
+
+    /**
+     * Whether the open handler resuming the animations was added, see {@link #ensureResumeHandler()}.
+     */
+    protected boolean resumesOnOpen = false;
+
+    /**
+     * The slot updates of {@link #publish(int, ItemStack)}, null until the inventory is made live.
+     */
+    protected volatile PublishedSlots published = null;
+    protected int livePeriod = 0;
+
+    protected ClickLimiter clickLimiter = null;
+    protected ClickLimiter[] slotLimiters = new ClickLimiter[0];
+
     protected final NamespacedKey namespace;
 
     protected Component title = Component.text("Default");
@@ -76,12 +131,7 @@ public class VanillaInventory implements CustomInventory {
         if (type == InventoryType.CHEST) {
 
             if (rows > 0 && rows < 7) {
-                inventory = Bukkit.createInventory(null, rows * 9, title);
-
-                for (int i = 0; i < items.size(); i++) {
-                    inventory.setItem(i, items.get(i));
-                }
-
+                size = rows * 9;
             } else {
                 throw new IllegalArgumentException("invalid rows for creating inventory");
             }
@@ -90,6 +140,10 @@ public class VanillaInventory implements CustomInventory {
             throw new IllegalArgumentException("invalid type for creating an inventory of that rows");
         }
 
+        if (idleTicks < 0 || inventory != null) {
+            materialize();
+        }
+        AnimationManager.start(this, getAnimations());
         return this;
     }
 
@@ -102,25 +156,110 @@ public class VanillaInventory implements CustomInventory {
      */
     @Override
     public VanillaInventory create() {
-        if (type == InventoryType.CHEST) {
+        size = type == InventoryType.CHEST ? 27 : type.getDefaultSize();
 
-            inventory = Bukkit.createInventory(null, 27, title);
+        if (idleTicks < 0 || inventory != null) {
+            materialize();
+        }
+        AnimationManager.start(this, getAnimations());
+        return this;
+    }
 
-            for (int i = 0; i < items.size(); i++) {
-                if (items.get(i).getType() == Material.AIR) {
-                    continue;
-                }
+    /**
+     * Creates the bukkit {@link Inventory} of the size recorded by {@link #create()} or {@link #create(int)} and
+     * fills it with the items of this instance. Called when the inventory is created, or on the first
+     * {@link #open(Player)} of a lazy inventory.
+     */
+    protected void materialize() {
+        if (type == InventoryType.CHEST) {
+            setInventory(Bukkit.createInventory(null, size, title));
+        } else {
+            setInventory(Bukkit.createInventory(null, type, title));
+        }
 
-                inventory.setItem(i, items.get(i));
+        for (int i = 0; i < Math.min(inventory.getSize(), items.size()); i++) {
+            if (items.get(i) == null || items.get(i).getType() == Material.AIR) {
+                continue;
             }
 
+            inventory.setItem(i, items.get(i));
+        }
+        dirty.clear();
 
-        } else {
-            inventory = Bukkit.createInventory(null, type, title);
+        startBuild();
+        if (idleTicks >= 0) {
+            EvictionManager.track(this);
         }
+    }
+
+    /**
+     * Makes the inventory lazy: {@link #create()} and {@link #create(int)} only record the layout, the bukkit
+     * {@link Inventory} is created on the first {@link #open(Player)} and released once it had no viewers for the
+     * provided amount of ticks, or when more than {@link EvictionManager#getMaxMaterialized()} lazy inventories are
+     * materialized. It is created again from the items of this instance on the next open.
+     * <p>
+     * Changes made to the bukkit inventory directly, rather than through {@link #setSlot(int, ItemStack)}, are lost
+     * when it is released. Open a lazy inventory through {@link #open(Player)} only, as {@link #getInventory()}
+     * returns null while it is released. Must be set before the inventory is created.
+     *
+     * @param idleTicks The ticks without viewers after which the inventory is released.
+     * @return {@link VanillaInventory}
+     * @throws IllegalArgumentException If the idle ticks are less than 1.
+     */
+    public VanillaInventory setLazy(long idleTicks) throws IllegalArgumentException {
+        if (idleTicks < 1) {
+            throw new IllegalArgumentException("invalid idle ticks");
+        }
+        this.idleTicks = idleTicks;
         return this;
     }
 
+    /**
+     * Returns the ticks without viewers after which a lazy inventory is released.
+     * @return The idle ticks, -1 if the inventory is not lazy.
+     */
+    public long getIdleTicks() {
+        return idleTicks;
+    }
+
+    /**
+     * Returns whether the bukkit {@link Inventory} of this instance currently exists.
+     * @return True if the inventory was created and not released.
+     */
+    public boolean isMaterialized() {
+        return inventory != null;
+    }
+
+    /**
+     * Releases the bukkit {@link Inventory} of a lazy inventory without viewers, keeping its items to create it again
+     * on the next {@link #open(Player)}. Called by the {@link EvictionManager}.
+     *
+     * @return True if the inventory was released.
+     */
+    public boolean release() {
+        if (idleTicks < 0 || inventory == null || hasViewers()) {
+            return false;
+        }
+
+        cancelBuild();
+        setInventory(null);
+        dirty.clear();
+        EvictionManager.untrack(this);
+        return true;
+    }
+
+    /**
+     * Sets the bukkit {@link Inventory} backing this instance and updates the {@link InventoryManager} index,
+     * so events of the new inventory are routed to this instance.
+     *
+     * @param inventory The new {@link Inventory}.
+     */
+    protected void setInventory(Inventory inventory) {
+        Inventory previous = this.inventory;
+        this.inventory = inventory;
+        InventoryManager.reindex(this, previous);
+    }
+
     /**
      * Registers this inventory into the {@link InventoryManager}.
      *
@@ -132,12 +271,32 @@ public class VanillaInventory implements CustomInventory {
         return this;
     }
 
+    /**
+     * Registers this inventory into the {@link InventoryManager} until its last viewer closes it, or it is no longer
+     * used. See {@link InventoryManager#registerTransient(CustomInventory)} for more info.
+     *
+     * @return {@link VanillaInventory}
+     */
+    @Override
+    public VanillaInventory registerTransient() {
+        InventoryManager.registerTransient(this);
+        return this;
+    }
+
     /**
      * Opens the inventory to the provided {@link Player}.
      * @param player The {@link Player} to open the inventory for.
      */
     @Override
     public void open(Player player) {
+        if (inventory == null && idleTicks >= 0 && size > 0) {
+            materialize();
+        } else if (idleTicks >= 0) {
+            EvictionManager.touch(this);
+        }
+        if (!factories.isEmpty() && (build == null || build.isCancelled())) {
+            startBuild();
+        }
         player.openInventory(inventory);
     }
 
@@ -146,12 +305,17 @@ public class VanillaInventory implements CustomInventory {
      */
     @Override
     public void close() {
-        inventory.close();
+        if (inventory != null) {
+            inventory.close();
+        }
     }
 
 
     /**
      * Sets the slot at the provided index of this inventory to the provided {@link ItemStack}. See {@link ShapedInventory} for dynamic inventory shaping.
+     * <p>
+     * Once the inventory was created, the slot is marked dirty and written to the inventory with all other dirty
+     * slots on the next tick, see {@link #flush()}. Must be called from the main thread.
      *
      * @param index The index of the slot, starting from 0, for the {@link ItemStack} to be added at.
      * @param itemStack The {@link ItemStack} to be added.
@@ -159,10 +323,231 @@ public class VanillaInventory implements CustomInventory {
      */
     @Override
     public VanillaInventory setSlot(int index, ItemStack itemStack) {
+        while (items.size() <= index) {
+            items.add(null);
+        }
         items.set(index, itemStack);
+
+        if (inventory != null) {
+            dirty.set(index);
+            UpdateManager.schedule(this);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the slot at the provided index to an item built off the main thread. The placeholder is shown until
+     * the item is built.
+     * <p>
+     * The factory runs on a worker thread whenever the inventory is created, and the built items of all factories are
+     * committed together on the main thread. If the last viewer closes the inventory before that, the build is
+     * cancelled and started again on the next {@link #open(Player)}. Passing the same factory for several slots runs
+     * it once.
+     *
+     * @param index The index of the slot, starting from 0.
+     * @param factory The factory building the {@link ItemStack}, must be safe to call from another thread.
+     * @param placeholder The {@link ItemStack} shown until the item is built.
+     * @return {@link VanillaInventory}
+     */
+    public VanillaInventory setSlot(int index, Supplier<ItemStack> factory, ItemStack placeholder) {
+        if (!cancelsBuildOnClose) {
+            // factories are cleared and set again whenever a shape is applied, the handler is only added once
+            handler.addHandler(InventoryCloseEvent.class, this::cancelBuildOnClose, EventPriority.MONITOR);
+            cancelsBuildOnClose = true;
+        }
+        factories.put(index, factory);
+        return setSlot(index, placeholder);
+    }
+
+    /**
+     * Starts building the items of {@link #setSlot(int, Supplier, ItemStack)}, cancelling a build in progress.
+     * Called when the inventory is created.
+     */
+    protected void startBuild() {
+        cancelBuild();
+        if (factories.isEmpty() || inventory == null) {
+            return;
+        }
+
+        Map<Supplier<ItemStack>, List<Integer>> groups = new IdentityHashMap<>();
+        for (Map.Entry<Integer, Supplier<ItemStack>> entry : factories.entrySet()) {
+            groups.computeIfAbsent(entry.getValue(), factory -> new ArrayList<>()).add(entry.getKey());
+        }
+
+        List<Supplier<ItemStack>> suppliers = new ArrayList<>(groups.size());
+        List<int[]> slots = new ArrayList<>(groups.size());
+        for (Map.Entry<Supplier<ItemStack>, List<Integer>> group : groups.entrySet()) {
+            suppliers.add(group.getKey());
+            slots.add(group.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        build = new ItemBuild(this, suppliers, slots);
+        build.start();
+    }
+
+    /**
+     * Cancels the build of the items of {@link #setSlot(int, Supplier, ItemStack)} if it did not finish yet.
+     */
+    public void cancelBuild() {
+        if (build != null && !build.isDone()) {
+            build.cancel();
+        }
+    }
+
+    private void cancelBuildOnClose(InventoryCloseEvent event) {
+        if (event.getInventory() == inventory && inventory.getViewers().size() <= 1) {
+            cancelBuild();
+        }
+    }
+
+    /**
+     * Animates the slot at the provided index, showing each frame for the provided amount of ticks. The first frame
+     * is set right away, the animation starts once the inventory is created and only runs while it has viewers.
+     * <p>
+     * All animations are driven by the {@link AnimationManager}, and a slot is only written when its frame changes.
+     *
+     * @param index The index of the slot, starting from 0.
+     * @param period The ticks each frame is shown for.
+     * @param frames The frames, shown in order and repeated.
+     * @return {@link VanillaInventory}
+     * @throws IllegalArgumentException If the period is less than 1, or there are no frames.
+     */
+    public VanillaInventory animate(int index, int period, ItemStack... frames) throws IllegalArgumentException {
+        Animation animation = new Animation(new int[] {index}, period, frames);
+        ensureResumeHandler();
+        animations.add(animation);
+        return setSlot(index, frames[0]);
+    }
+
+    /**
+     * Adds the open handler resuming the animations of this inventory, unless it was added already.
+     */
+    protected void ensureResumeHandler() {
+        if (!resumesOnOpen) {
+            handler.addHandler(InventoryOpenEvent.class, event -> AnimationManager.resume(this), EventPriority.MONITOR, true);
+            resumesOnOpen = true;
+        }
+    }
+
+    /**
+     * Returns the animations started when the inventory is created.
+     *
+     * @return The animations of this inventory.
+     */
+    protected List<Animation> getAnimations() {
+        return animations;
+    }
+
+    /**
+     * Stops the animations of this inventory until it is created again.
+     */
+    public void stopAnimations() {
+        AnimationManager.stop(this);
+    }
+
+    /**
+     * Returns whether the inventory was created and is viewed by at least one player.
+     *
+     * @return True if the inventory has viewers.
+     */
+    public boolean hasViewers() {
+        return inventory != null && !inventory.getViewers().isEmpty();
+    }
+
+    /**
+     * Makes the inventory live: slot updates can be published from any thread by {@link #publish(int, ItemStack)},
+     * and are applied on the main thread every period. Updates of the same slot within a period are merged, only the
+     * last one is written, so the cost of a period grows with the changed slots rather than with the updates.
+     * Must be called from the main thread.
+     *
+     * @param periodTicks The ticks between two applications of the published updates.
+     * @return {@link VanillaInventory}
+     * @throws IllegalArgumentException If the period is less than 1.
+     */
+    public VanillaInventory setLive(int periodTicks) throws IllegalArgumentException {
+        if (periodTicks < 1) {
+            throw new IllegalArgumentException("invalid period");
+        }
+        if (published == null) {
+            published = new PublishedSlots();
+        }
+        livePeriod = periodTicks;
+        BroadcastManager.start(this);
         return this;
     }
 
+    /**
+     * Stops applying published updates, applying the pending ones a last time. Must be called from the main thread.
+     */
+    public void stopLive() {
+        BroadcastManager.stop(this);
+    }
+
+    /**
+     * Publishes an update of the slot at the provided index, replacing an update of the same slot which was not
+     * applied yet. Can be called from any thread, see {@link #setLive(int)}.
+     *
+     * @param index The index of the slot, starting from 0.
+     * @param itemStack The {@link ItemStack} to be set, null for an empty slot.
+     * @throws IllegalArgumentException If the index is negative or greater than 53.
+     * @throws IllegalStateException If the inventory is not live.
+     */
+    public void publish(int index, ItemStack itemStack) throws IllegalArgumentException, IllegalStateException {
+        PublishedSlots slots = published;
+        if (slots == null) {
+            throw new IllegalStateException("inventory is not live");
+        }
+        if (index < 0 || index >= PublishedSlots.capacity) {
+            throw new IllegalArgumentException("invalid slot");
+        }
+        slots.publish(index, itemStack);
+    }
+
+    /**
+     * Sets the published updates which were not applied yet. Called by the {@link BroadcastManager}.
+     *
+     * @return The amount of slots set.
+     */
+    public int applyPublished() {
+        PublishedSlots slots = published;
+        return slots == null ? 0 : slots.apply(this);
+    }
+
+    /**
+     * Returns the ticks between two applications of the published updates.
+     * @return The period in ticks, 0 if the inventory was never made live.
+     */
+    public int getLivePeriod() {
+        return livePeriod;
+    }
+
+    /**
+     * Writes the slots changed by {@link #setSlot(int, ItemStack)} to the inventory. Called once per tick by the
+     * {@link UpdateManager}, so several changes of the same slot within a tick are written once.
+     * <p>
+     * If more than half of the inventory changed, all contents are written at once.
+     */
+    public void flush() {
+        if (inventory == null || dirty.isEmpty()) {
+            dirty.clear();
+            return;
+        }
+
+        int size = Math.min(inventory.getSize(), items.size());
+        if (dirty.cardinality() * 2 > inventory.getSize()) {
+            ItemStack[] contents = inventory.getContents();
+            for (int i = dirty.nextSetBit(0); i >= 0 && i < size; i = dirty.nextSetBit(i + 1)) {
+                contents[i] = items.get(i);
+            }
+            inventory.setContents(contents);
+        } else {
+            for (int i = dirty.nextSetBit(0); i >= 0 && i < size; i = dirty.nextSetBit(i + 1)) {
+                inventory.setItem(i, items.get(i));
+            }
+        }
+        dirty.clear();
+    }
+
 
     /**
      * Sets the handler for the {@link InventoryOpenEvent}.
@@ -200,6 +585,62 @@ public class VanillaInventory implements CustomInventory {
         return this;
     }
 
+    /**
+     * Sets the handler for the {@link InventoryClickEvent} of a single slot. It runs after the handler set by
+     * {@link #onClick(Consumer)}, and only for clicks on that slot.
+     *
+     * @param slot The raw slot, starting from 0, to handle clicks for.
+     * @param handler The handler to be set.
+     * @return {@link VanillaInventory}
+     * @throws IllegalArgumentException If the slot is negative.
+     */
+    public VanillaInventory onClick(int slot, Consumer<InventoryClickEvent> handler) throws IllegalArgumentException {
+        this.handler.setSlotHandler(slot, handler);
+        return this;
+    }
+
+    /**
+     * Limits how fast each player can click in this inventory. Clicks over the limit are cancelled before any handler
+     * runs, see {@link ClickLimiter}.
+     *
+     * @param capacity The maximum amount of clicks in a burst.
+     * @param refillPerSecond The amount of clicks allowed per second once the burst is used up.
+     * @return {@link VanillaInventory}
+     * @throws IllegalArgumentException If the capacity is less than 1, or the refill rate is not positive.
+     */
+    public VanillaInventory setClickLimit(int capacity, double refillPerSecond) throws IllegalArgumentException {
+        ClickLimiter limiter = new ClickLimiter(capacity, refillPerSecond);
+        if (clickLimiter == null) {
+            handler.addClickLimiter();
+        }
+        this.clickLimiter = limiter;
+        return this;
+    }
+
+    /**
+     * Limits how fast each player can click the provided slot, in addition to {@link #setClickLimit(int, double)}.
+     *
+     * @param slot The raw slot, starting from 0.
+     * @param capacity The maximum amount of clicks in a burst.
+     * @param refillPerSecond The amount of clicks allowed per second once the burst is used up.
+     * @return {@link VanillaInventory}
+     * @throws IllegalArgumentException If the slot is negative, the capacity is less than 1, or the refill rate is not positive.
+     */
+    public VanillaInventory setClickLimit(int slot, int capacity, double refillPerSecond) throws IllegalArgumentException {
+        if (slot < 0) {
+            throw new IllegalArgumentException("invalid slot");
+        }
+        if (slot >= slotLimiters.length) {
+            slotLimiters = Arrays.copyOf(slotLimiters, slot + 1);
+        }
+        ClickLimiter limiter = new ClickLimiter(capacity, refillPerSecond);
+        if (slotLimiters[slot] == null) {
+            handler.addClickLimiter();
+        }
+        slotLimiters[slot] = limiter;
+        return this;
+    }
+
     /**
      * Sets the handler for the {@link InventoryDragEvent}.
      *
@@ -305,6 +746,25 @@ public class VanillaInventory implements CustomInventory {
         return inventory;
     }
 
+    /**
+     * Returns the {@link ClickLimiter} applied to every click in this inventory.
+     * @return {@link ClickLimiter}, null if clicks are not limited.
+     */
+    @Override
+    public ClickLimiter getClickLimiter() {
+        return clickLimiter;
+    }
+
+    /**
+     * Returns the {@link ClickLimiter} applied to clicks on the provided slot.
+     * @param rawSlot The raw slot of the click.
+     * @return {@link ClickLimiter}, null if clicks on the slot are not limited.
+     */
+    @Override
+    public ClickLimiter getClickLimiter(int rawSlot) {
+        return rawSlot >= 0 && rawSlot < slotLimiters.length ? slotLimiters[rawSlot] : null;
+    }
+
 
 
 
@@ -0,0 +1,189 @@
+package com.github.toodles02.easygui.api.manager;
+
+import com.github.toodles02.easygui.EasyGUI;
+import com.github.toodles02.easygui.api.inventory.Animation;
+import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The manager driving every {@link Animation} from a single task running once per tick.
+ * <p>
+ * Animations are kept in a timing wheel with one bucket per tick, so a tick only visits the animations that have a
+ * frame due. Animations of an inventory without viewers are parked until it is opened again. Must only be used from
+ * the main thread.
+ */
+public class AnimationManager {
+
+    private static final int wheelSize = 64;
+    private static final int mask = wheelSize - 1;
+
+    private static final List<List<Track>> wheel = new ArrayList<>(wheelSize);
+
+    static {
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    private static final Map<VanillaInventory, List<Track>> tracks = new IdentityHashMap<>();
+    private static final Map<VanillaInventory, List<Track>> parked = new IdentityHashMap<>();
+    private static final Set<VanillaInventory> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private static long tick = 0;
+    private static int scheduled = 0;
+    private static BukkitTask task = null;
+
+    /**
+     * Starts the provided animations of an inventory, replacing the ones started before. They stay parked until the
+     * inventory has viewers.
+     *
+     * @param inventory The {@link VanillaInventory} showing the animations.
+     * @param animations The animations.
+     */
+    public static void start(VanillaInventory inventory, Collection<Animation> animations) {
+        stop(inventory);
+        if (animations.isEmpty()) {
+            return;
+        }
+
+        List<Track> started = new ArrayList<>(animations.size());
+        for (Animation animation : animations) {
+            started.add(new Track(inventory, animation));
+        }
+        tracks.put(inventory, started);
+        parked.put(inventory, new ArrayList<>(started));
+        if (inventory.hasViewers()) {
+            resume(inventory);
+        }
+    }
+
+    /**
+     * Stops the animations of the provided inventory.
+     *
+     * @param inventory The {@link VanillaInventory} showing the animations.
+     */
+    public static void stop(VanillaInventory inventory) {
+        List<Track> stopped = tracks.remove(inventory);
+        if (stopped == null) {
+            return;
+        }
+        for (Track track : stopped) {
+            track.cancelled = true;
+        }
+        parked.remove(inventory);
+    }
+
+    /**
+     * Schedules the parked animations of the provided inventory again. Called when it is opened, animations are
+     * parked again on their next frame if it has no viewers by then.
+     *
+     * @param inventory The {@link VanillaInventory} showing the animations.
+     */
+    public static void resume(VanillaInventory inventory) {
+        List<Track> resumed = parked.remove(inventory);
+        if (resumed == null) {
+            return;
+        }
+        for (Track track : resumed) {
+            schedule(track, tick + track.animation.getPeriod());
+        }
+    }
+
+    /**
+     * Stops every animation.
+     */
+    public static void stopAll() {
+        for (VanillaInventory inventory : new ArrayList<>(tracks.keySet())) {
+            stop(inventory);
+        }
+        for (List<Track> bucket : wheel) {
+            bucket.clear();
+        }
+        scheduled = 0;
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private static void schedule(Track track, long due) {
+        track.due = due;
+        wheel.get((int) (due & mask)).add(track);
+        scheduled++;
+
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(EasyGUI.getInstance(), AnimationManager::tick, 1, 1);
+        }
+    }
+
+    private static void tick() {
+        tick++;
+
+        List<Track> bucket = wheel.get((int) (tick & mask));
+        for (int i = bucket.size() - 1; i >= 0; i--) {
+            Track track = bucket.get(i);
+            if (!track.cancelled && track.due > tick) {
+                continue;
+            }
+
+            int last = bucket.size() - 1;
+            bucket.set(i, bucket.get(last));
+            bucket.remove(last);
+            scheduled--;
+
+            if (track.cancelled) {
+                continue;
+            }
+            if (!track.inventory.hasViewers()) {
+                parked.computeIfAbsent(track.inventory, inventory -> new ArrayList<>()).add(track);
+                continue;
+            }
+
+            int previous = track.frame;
+            track.frame = (previous + 1) % track.animation.getFrameCount();
+            track.animation.show(track.inventory, previous, track.frame);
+            changed.add(track.inventory);
+
+            schedule(track, tick + track.animation.getPeriod());
+        }
+
+        if (!changed.isEmpty()) {
+            for (VanillaInventory inventory : changed) {
+                inventory.flush();
+            }
+            changed.clear();
+        }
+
+        if (scheduled == 0 && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * An animation running in an inventory.
+     */
+    private static final class Track {
+
+        private final VanillaInventory inventory;
+        private final Animation animation;
+        private int frame = 0;
+        private long due = 0;
+        private boolean cancelled = false;
+
+        private Track(VanillaInventory inventory, Animation animation) {
+            this.inventory = inventory;
+            this.animation = animation;
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.github.toodles02.easygui.api.manager;
+
+import com.github.toodles02.easygui.EasyGUI;
+import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The manager applying the slot updates published to live {@link VanillaInventory} objects, see
+ * {@link VanillaInventory#setLive(int)}.
+ * <p>
+ * A single task runs once per tick and applies the updates of every live inventory whose period is due, writing
+ * them to the inventory in one flush. Must only be used from the main thread.
+ */
+public class BroadcastManager {
+
+    private static final Set<VanillaInventory> live = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private static long tick = 0;
+    private static BukkitTask task = null;
+
+    /**
+     * Starts applying the updates published to the provided inventory. Holds the inventory until it is stopped.
+     *
+     * @param inventory The live {@link VanillaInventory}.
+     */
+    public static void start(VanillaInventory inventory) {
+        live.add(inventory);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(EasyGUI.getInstance(), BroadcastManager::tick, 1, 1);
+        }
+    }
+
+    /**
+     * Stops applying the updates published to the provided inventory, applying the pending ones a last time.
+     *
+     * @param inventory The live {@link VanillaInventory}.
+     */
+    public static void stop(VanillaInventory inventory) {
+        if (!live.remove(inventory)) {
+            return;
+        }
+        apply(inventory);
+        if (live.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Stops every live inventory, applying their pending updates a last time.
+     */
+    public static void stopAll() {
+        for (VanillaInventory inventory : new ArrayList<>(live)) {
+            stop(inventory);
+        }
+    }
+
+    /**
+     * Returns whether updates published to the provided inventory are applied.
+     *
+     * @param inventory The {@link VanillaInventory}.
+     * @return True if the inventory is live.
+     */
+    public static boolean isLive(VanillaInventory inventory) {
+        return live.contains(inventory);
+    }
+
+    private static void tick() {
+        tick++;
+        List<VanillaInventory> due = new ArrayList<>(live.size());
+        for (VanillaInventory inventory : live) {
+            if (tick % inventory.getLivePeriod() == 0) {
+                due.add(inventory);
+            }
+        }
+        for (VanillaInventory inventory : due) {
+            apply(inventory);
+        }
+    }
+
+    private static void apply(VanillaInventory inventory) {
+        if (inventory.applyPublished() > 0) {
+            inventory.flush();
+        }
+    }
+
+}
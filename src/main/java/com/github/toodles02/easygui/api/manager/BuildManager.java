@@ -0,0 +1,44 @@
+package com.github.toodles02.easygui.api.manager;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The manager of the worker threads building {@link org.bukkit.inventory.ItemStack} off the main thread, see
+ * {@link com.github.toodles02.easygui.api.inventory.ItemBuild}.
+ */
+public class BuildManager {
+
+    private static final AtomicInteger threads = new AtomicInteger();
+
+    private static ExecutorService executor = null;
+
+    /**
+     * Returns the executor running item factories, creating it if needed.
+     *
+     * @return The {@link ExecutorService} of the worker threads.
+     */
+    public static synchronized ExecutorService getExecutor() {
+        if (executor == null || executor.isShutdown()) {
+            int size = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            executor = Executors.newFixedThreadPool(size, runnable -> {
+                Thread thread = new Thread(runnable, "EasyGUI Item Builder #" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Stops the worker threads, interrupting running item factories.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+}
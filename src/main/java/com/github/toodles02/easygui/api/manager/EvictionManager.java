@@ -0,0 +1,155 @@
+package com.github.toodles02.easygui.api.manager;
+
+import com.github.toodles02.easygui.EasyGUI;
+import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The manager releasing the bukkit inventories of lazy {@link VanillaInventory} objects, see
+ * {@link VanillaInventory#setLazy(long)}.
+ * <p>
+ * Materialized lazy inventories are kept in least recently opened order. Once a second, the ones that had no viewers
+ * for longer than their idle time are released. If more than {@link #getMaxMaterialized()} inventories are
+ * materialized, the least recently opened ones without viewers are released right away. Must only be used from the
+ * main thread.
+ */
+public class EvictionManager {
+
+    private static final long sweepPeriod = 20;
+
+    private static final Map<VanillaInventory, Long> materialized = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static int maxMaterialized = 256;
+    private static long tick = 0;
+    private static BukkitTask task = null;
+
+    /**
+     * Tracks a lazy inventory which was just materialized, releasing the least recently opened inventories if there
+     * are more than {@link #getMaxMaterialized()}.
+     *
+     * @param inventory The materialized {@link VanillaInventory}.
+     */
+    public static void track(VanillaInventory inventory) {
+        materialized.put(inventory, tick);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(EasyGUI.getInstance(), EvictionManager::sweep, sweepPeriod, sweepPeriod);
+        }
+        trim();
+    }
+
+    /**
+     * Marks a tracked inventory as used now, so it is released last.
+     *
+     * @param inventory The opened {@link VanillaInventory}.
+     */
+    public static void touch(VanillaInventory inventory) {
+        if (materialized.containsKey(inventory)) {
+            materialized.put(inventory, tick);
+        }
+    }
+
+    /**
+     * Stops tracking an inventory, called when it is released.
+     *
+     * @param inventory The released {@link VanillaInventory}.
+     */
+    public static void untrack(VanillaInventory inventory) {
+        materialized.remove(inventory);
+        if (materialized.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Returns the amount of lazy inventories which are currently materialized.
+     * @return The amount of materialized inventories.
+     */
+    public static int getMaterialized() {
+        return materialized.size();
+    }
+
+    /**
+     * Returns the maximum amount of lazy inventories materialized at the same time.
+     * @return The maximum amount of materialized inventories.
+     */
+    public static int getMaxMaterialized() {
+        return maxMaterialized;
+    }
+
+    /**
+     * Sets the maximum amount of lazy inventories materialized at the same time. Defaults to 256. Inventories with
+     * viewers are never released, so the cap is exceeded while all of them are open.
+     *
+     * @param max The maximum amount of materialized inventories.
+     * @throws IllegalArgumentException If the maximum is less than 1.
+     */
+    public static void setMaxMaterialized(int max) throws IllegalArgumentException {
+        if (max < 1) {
+            throw new IllegalArgumentException("invalid maximum");
+        }
+        maxMaterialized = max;
+        trim();
+    }
+
+    /**
+     * Stops tracking every inventory without releasing them.
+     */
+    public static void clear() {
+        materialized.clear();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private static void trim() {
+        int excess = materialized.size() - maxMaterialized;
+        if (excess <= 0) {
+            return;
+        }
+
+        List<VanillaInventory> released = new ArrayList<>(excess);
+        for (VanillaInventory inventory : materialized.keySet()) {
+            if (released.size() == excess) {
+                break;
+            }
+            if (!inventory.hasViewers()) {
+                released.add(inventory);
+            }
+        }
+        for (VanillaInventory inventory : released) {
+            inventory.release();
+        }
+    }
+
+    private static void sweep() {
+        tick += sweepPeriod;
+
+        List<VanillaInventory> viewed = new ArrayList<>();
+        List<VanillaInventory> idle = new ArrayList<>();
+        for (Map.Entry<VanillaInventory, Long> entry : materialized.entrySet()) {
+            VanillaInventory inventory = entry.getKey();
+            if (inventory.hasViewers()) {
+                viewed.add(inventory);
+            } else if (tick - entry.getValue() >= inventory.getIdleTicks()) {
+                idle.add(inventory);
+            }
+        }
+
+        // the idle time counts from the last viewer, not from the open
+        for (VanillaInventory inventory : viewed) {
+            materialized.put(inventory, tick);
+        }
+        for (VanillaInventory inventory : idle) {
+            inventory.release();
+        }
+    }
+
+}
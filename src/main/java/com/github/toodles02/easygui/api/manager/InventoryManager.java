@@ -1,27 +1,81 @@
 package com.github.toodles02.easygui.api.manager;
 
+import com.github.toodles02.easygui.EasyGUI;
 import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import org.bukkit.Bukkit;
 import org.bukkit.NamespacedKey;
 import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import com.github.toodles02.easygui.api.inventory.InventoryHandler;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.inventory.Inventory;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * The manager of all registered {@link VanillaInventory}.
+ * <p>
+ * Inventories can be registered from any thread. Reads are served from immutable snapshots keyed by identity, which
+ * are only rebuilt when an inventory is registered, unregistered, bound or unbound.
+ * <p>
+ * Inventories registered by {@link #registerTransient(CustomInventory)} are kept apart from the others. They are only
+ * held strongly while they have viewers, and are unregistered once their last viewer closes them, or once they are
+ * collected by the garbage collector.
  */
 public class InventoryManager {
 
-    private static final Map<NamespacedKey, CustomInventory> inventories = new HashMap<>();
+    private static final Map<NamespacedKey, CustomInventory> inventories = new ConcurrentHashMap<>();
+
+    /**
+     * Guards writes to the registry, reads go through the snapshots below without locking.
+     */
+    private static final Object lock = new Object();
+
+    /**
+     * Immutable snapshot of the registered inventories, rebuilt on every write.
+     */
+    private static volatile List<CustomInventory> snapshot = List.of();
+
+    /**
+     * Immutable snapshot of every bukkit {@link Inventory} of a registered inventory, keyed by identity.
+     */
+    private static volatile Map<Inventory, CustomInventory> views = Collections.emptyMap();
+
+    /**
+     * Immutable snapshot of the bukkit inventories bound to a registered inventory without being its main inventory,
+     * keyed by identity, see {@link #bind(Inventory, CustomInventory)}.
+     */
+    private static volatile Map<Inventory, CustomInventory> bindings = Collections.emptyMap();
+
+    /**
+     * Transient inventories by key, and an immutable snapshot of them by bukkit {@link Inventory} keyed by identity,
+     * see {@link #registerTransient(CustomInventory)}.
+     */
+    private static final Map<NamespacedKey, Transient> transients = new ConcurrentHashMap<>();
+    private static volatile Map<Inventory, Transient> transientViews = Collections.emptyMap();
+
+    /**
+     * Receives the references of collected transient inventories, drained by the sweeper thread.
+     */
+    private static final ReferenceQueue<CustomInventory> queue = new ReferenceQueue<>();
+    private static Thread sweeper = null;
+    private static boolean pinned = false;
 
     /**
      * Returns the map of all inventories registered under their namespace.
+     * <p>
+     * The returned list is an immutable snapshot, it does not change when inventories are registered afterwards.
+     * Transient inventories are not included.
      *
      * @return A list of registered {@link VanillaInventory}.
      */
     public static List<CustomInventory> getInventories() {
-        return inventories.values().stream().toList();
+        return snapshot;
     }
 
     /**
@@ -31,21 +85,79 @@ public class InventoryManager {
      * @return A list of {@link VanillaInventory} that pass the filter. If there are none, returns an empty {@link ArrayList}
      */
     public static List<CustomInventory> get(Predicate<CustomInventory> filter) {
-        if (inventories.values().stream().anyMatch(filter)) {
-            return inventories.values().stream().filter(filter).collect(Collectors.toList());
+        List<CustomInventory> found = new ArrayList<>();
+        for (CustomInventory inventory : snapshot) {
+            if (filter.test(inventory)) {
+                found.add(inventory);
+            }
         }
-        return new ArrayList<>();
+        return found;
     }
 
 
     /**
-     * Returns the {@link VanillaInventory} registered under the provided {@link NamespacedKey}.
+     * Returns the {@link VanillaInventory} registered under the provided {@link NamespacedKey}. Can be called from any
+     * thread. Bundled menus which were not built yet are not found, see {@link MenuManager#materialize(NamespacedKey)}.
      *
      * @param key The {@link NamespacedKey} used to register that inventory.
-     * @return The {@link VanillaInventory} registered under the provided {@link NamespacedKey}.
+     * @return The {@link VanillaInventory} registered under the provided {@link NamespacedKey}, null if there is none.
      */
     public static CustomInventory get(NamespacedKey key) {
-        return inventories.getOrDefault(key, null);
+        CustomInventory inventory = inventories.get(key);
+        if (inventory == null && !transients.isEmpty()) {
+            Transient reference = transients.get(key);
+            inventory = reference == null ? null : reference.get();
+        }
+        return inventory;
+    }
+
+    /**
+     * Returns the registered inventory backed by the provided bukkit {@link Inventory}.
+     * <p>
+     * The lookup is by identity, also for bound and transient inventories, so it costs the same no matter how many
+     * inventories are registered.
+     *
+     * @param inventory The bukkit {@link Inventory}, may be null.
+     * @return The registered inventory backed by the provided {@link Inventory}, null if there is none.
+     */
+    public static CustomInventory get(Inventory inventory) {
+        if (inventory == null) {
+            return null;
+        }
+        CustomInventory customInventory = views.get(inventory);
+        if (customInventory == null) {
+            customInventory = bindings.get(inventory);
+        }
+        if (customInventory == null) {
+            Transient reference = transientViews.get(inventory);
+            customInventory = reference == null ? null : reference.get();
+        }
+        return customInventory;
+    }
+
+    /**
+     * Binds an additional bukkit {@link Inventory} to an inventory, so its events are routed to that inventory's
+     * handler. Used for inventories that are backed by more than one bukkit {@link Inventory}, like one per viewer,
+     * without registering each of them.
+     *
+     * @param inventory The bukkit {@link Inventory} to be bound.
+     * @param customInventory The inventory its events are routed to.
+     */
+    public static void bind(Inventory inventory, CustomInventory customInventory) {
+        synchronized (lock) {
+            bindings = with(bindings, inventory, customInventory);
+        }
+    }
+
+    /**
+     * Unbinds a bukkit {@link Inventory} bound by {@link #bind(Inventory, CustomInventory)}.
+     *
+     * @param inventory The bukkit {@link Inventory} to be unbound.
+     */
+    public static void unbind(Inventory inventory) {
+        synchronized (lock) {
+            bindings = without(bindings, inventory, bindings.get(inventory));
+        }
     }
 
     /**
@@ -54,7 +166,16 @@ public class InventoryManager {
      * @param inventory The {@link VanillaInventory} to be registered.
      */
     public static void register(CustomInventory inventory) {
-        inventories.put(inventory.getKey(), inventory);
+        synchronized (lock) {
+            removeTransient(inventory.getKey());
+            CustomInventory previous = inventories.put(inventory.getKey(), inventory);
+            Map<Inventory, CustomInventory> copy = new IdentityHashMap<>(views);
+            if (previous != null) {
+                unindex(copy, previous.getInventory(), previous);
+            }
+            index(copy, inventory.getInventory(), inventory);
+            publish(copy);
+        }
     }
 
     /**
@@ -63,7 +184,308 @@ public class InventoryManager {
      * @param key The {@link NamespacedKey} of the inventory to be removed.
      */
     public static void unregister(NamespacedKey key) {
-        inventories.remove(key);
+        synchronized (lock) {
+            removeTransient(key);
+            CustomInventory removed = inventories.remove(key);
+            if (removed == null) {
+                return;
+            }
+            Map<Inventory, CustomInventory> copy = new IdentityHashMap<>(views);
+            unindex(copy, removed.getInventory(), removed);
+            publish(copy);
+        }
+    }
+
+    /**
+     * Updates the index after the bukkit {@link Inventory} of an inventory changed, e.g. when it was
+     * (re)created. Does nothing if the inventory is not registered.
+     *
+     * @param inventory The inventory whose bukkit {@link Inventory} changed.
+     * @param previous The bukkit {@link Inventory} it was backed by before, may be null.
+     */
+    public static void reindex(CustomInventory inventory, Inventory previous) {
+        synchronized (lock) {
+            Transient reference = transients.get(inventory.getKey());
+            if (reference != null && reference.get() == inventory) {
+                if (previous != null) {
+                    transientViews = without(transientViews, previous, reference);
+                }
+                reference.inventory = inventory.getInventory();
+                if (reference.inventory != null) {
+                    transientViews = with(transientViews, reference.inventory, reference);
+                }
+                return;
+            }
+            if (inventories.get(inventory.getKey()) != inventory) {
+                return;
+            }
+            Map<Inventory, CustomInventory> copy = new IdentityHashMap<>(views);
+            unindex(copy, previous, inventory);
+            index(copy, inventory.getInventory(), inventory);
+            publish(copy);
+        }
+    }
+
+    /**
+     * Registers an inventory which only lives as long as it is used, like a confirmation dialog created for a single
+     * player. Replaces the inventory registered under the same key.
+     * <p>
+     * The inventory is held weakly until it is opened, and strongly while it has viewers. It is unregistered once its
+     * last viewer closes it, unless a player can navigate back to it through the {@link NavigationManager}, or once it
+     * is no longer strongly reachable, e.g. when it was never opened. Its handlers
+     * still receive every event until then. Transient inventories are not returned by {@link #getInventories()}.
+     * <p>
+     * Animations, live and lazy inventories hold their inventory strongly until they are stopped or released, see
+     * {@link VanillaInventory#stopAnimations()}, {@link VanillaInventory#stopLive()} and
+     * {@link VanillaInventory#release()}.
+     *
+     * @param inventory The inventory to be registered.
+     */
+    public static void registerTransient(CustomInventory inventory) {
+        synchronized (lock) {
+            if (inventories.containsKey(inventory.getKey())) {
+                unregister(inventory.getKey());
+            }
+            removeTransient(inventory.getKey());
+
+            Transient reference = new Transient(inventory, queue);
+            transients.put(reference.key, reference);
+            if (reference.inventory != null) {
+                transientViews = with(transientViews, reference.inventory, reference);
+            }
+            for (Class<? extends Event> eClass : InventoryHandler.getEventTypes()) {
+                if (inventory.getHandler().handles(eClass)) {
+                    ListenerManager.require(eClass);
+                }
+            }
+
+            if (!pinned) {
+                // open and close track the viewers of transient inventories
+                ListenerManager.pin(InventoryOpenEvent.class);
+                ListenerManager.pin(InventoryCloseEvent.class);
+                pinned = true;
+            }
+            if (sweeper == null) {
+                sweeper = new Thread(InventoryManager::sweep, "EasyGUI Transient Sweeper");
+                sweeper.setDaemon(true);
+                sweeper.start();
+            }
+        }
+    }
+
+    /**
+     * Holds a transient inventory strongly while it is viewed. Called by the
+     * {@link com.github.toodles02.easygui.api.event.InventoryListener} once a bukkit inventory was opened.
+     *
+     * @param inventory The opened bukkit {@link Inventory}.
+     */
+    public static void opened(Inventory inventory) {
+        Transient reference = transientViews.get(inventory);
+        if (reference != null) {
+            reference.strong = reference.get();
+        }
+    }
+
+    /**
+     * Unregisters a transient inventory if it has no viewers on the next tick. Called by the
+     * {@link com.github.toodles02.easygui.api.event.InventoryListener} once a bukkit inventory was closed. The check is
+     * deferred, as reopening an inventory closes it first.
+     *
+     * @param inventory The closed bukkit {@link Inventory}.
+     */
+    public static void closed(Inventory inventory) {
+        Transient reference = transientViews.get(inventory);
+        if (reference == null || !EasyGUI.getInstance().isEnabled()) {
+            return;
+        }
+
+        Bukkit.getScheduler().runTask(EasyGUI.getInstance(), () -> {
+            if (!inventory.getViewers().isEmpty()) {
+                return;
+            }
+            CustomInventory customInventory = reference.get();
+            if (customInventory != null && NavigationManager.isRetained(customInventory)) {
+                // held by a navigation history, which disposes it once it drops it
+                reference.strong = null;
+                return;
+            }
+            dispose(reference, customInventory);
+        });
+    }
+
+    /**
+     * Unregisters a transient inventory which a navigation history dropped, if it has no viewers. Called by the
+     * {@link NavigationManager}.
+     *
+     * @param customInventory The inventory no history holds anymore.
+     */
+    static void released(CustomInventory customInventory) {
+        Transient reference = transients.isEmpty() ? null : transients.get(customInventory.getKey());
+        if (reference == null || reference.get() != customInventory || !SessionManager.getViewers(customInventory).isEmpty()) {
+            return;
+        }
+        dispose(reference, customInventory);
+    }
+
+    /**
+     * Unregisters a transient inventory and stops everything that holds it strongly.
+     */
+    private static void dispose(Transient reference, CustomInventory customInventory) {
+        synchronized (lock) {
+            if (transients.get(reference.key) != reference) {
+                return;
+            }
+            removeTransient(reference.key);
+            ListenerManager.update(snapshot);
+        }
+        if (customInventory instanceof VanillaInventory vanillaInventory) {
+            vanillaInventory.stopAnimations();
+            vanillaInventory.stopLive();
+            vanillaInventory.cancelBuild();
+        }
+    }
+
+    /**
+     * Unregisters every inventory, transient or not, and closes them for their viewers. Called when EasyGUI is
+     * disabled, so no player keeps a menu open whose handlers are gone.
+     */
+    public static void clear() {
+        List<Inventory> open = new ArrayList<>();
+        synchronized (lock) {
+            for (CustomInventory inventory : inventories.values()) {
+                open.add(inventory.getInventory());
+            }
+            for (Transient reference : transients.values()) {
+                open.add(reference.inventory);
+            }
+            open.addAll(bindings.keySet());
+        }
+        // closing runs the close handlers, so they are still registered here
+        for (Inventory inventory : open) {
+            if (inventory != null) {
+                inventory.close();
+            }
+        }
+
+        synchronized (lock) {
+            inventories.clear();
+            bindings = Collections.emptyMap();
+            transients.clear();
+            transientViews = Collections.emptyMap();
+            if (pinned) {
+                ListenerManager.unpin(InventoryOpenEvent.class);
+                ListenerManager.unpin(InventoryCloseEvent.class);
+                pinned = false;
+            }
+            if (sweeper != null) {
+                sweeper.interrupt();
+                sweeper = null;
+            }
+            publish(new IdentityHashMap<>());
+        }
+    }
+
+    /**
+     * Returns the transient inventories which were not collected yet, so the {@link ListenerManager} keeps the
+     * listeners they use registered.
+     *
+     * @return A list of transient inventories.
+     */
+    static List<CustomInventory> getTransientInventories() {
+        if (transients.isEmpty()) {
+            return List.of();
+        }
+        List<CustomInventory> found = new ArrayList<>(transients.size());
+        for (Transient reference : transients.values()) {
+            CustomInventory inventory = reference.get();
+            if (inventory != null) {
+                found.add(inventory);
+            }
+        }
+        return found;
+    }
+
+    private static void removeTransient(NamespacedKey key) {
+        Transient removed = transients.remove(key);
+        if (removed != null) {
+            removed.strong = null;
+            if (removed.inventory != null) {
+                transientViews = without(transientViews, removed.inventory, removed);
+            }
+        }
+    }
+
+    private static void sweep() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Transient reference = (Transient) queue.remove();
+                synchronized (lock) {
+                    transients.remove(reference.key, reference);
+                    Inventory inventory = reference.inventory;
+                    if (inventory != null) {
+                        transientViews = without(transientViews, inventory, reference);
+                    }
+                }
+            }
+        } catch (InterruptedException ignored) {
+            // cleared
+        }
+    }
+
+    private static void publish(Map<Inventory, CustomInventory> copy) {
+        views = Collections.unmodifiableMap(copy);
+        snapshot = List.copyOf(inventories.values());
+        ListenerManager.update(snapshot);
+    }
+
+    /**
+     * Returns a copy of an identity snapshot with the provided entry added.
+     */
+    private static <V> Map<Inventory, V> with(Map<Inventory, V> map, Inventory inventory, V value) {
+        Map<Inventory, V> copy = new IdentityHashMap<>(map);
+        copy.put(inventory, value);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Returns a copy of an identity snapshot with the provided entry removed, or the snapshot itself if it does not
+     * hold that entry.
+     */
+    private static <V> Map<Inventory, V> without(Map<Inventory, V> map, Inventory inventory, V value) {
+        if (value == null || map.get(inventory) != value) {
+            return map;
+        }
+        Map<Inventory, V> copy = new IdentityHashMap<>(map);
+        copy.remove(inventory);
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static void index(Map<Inventory, CustomInventory> views, Inventory inventory, CustomInventory customInventory) {
+        if (inventory != null) {
+            views.put(inventory, customInventory);
+        }
+    }
+
+    private static void unindex(Map<Inventory, CustomInventory> views, Inventory inventory, CustomInventory customInventory) {
+        if (inventory != null) {
+            views.remove(inventory, customInventory);
+        }
+    }
+
+    /**
+     * A weak reference to a transient inventory, strong while the inventory has viewers.
+     */
+    private static final class Transient extends WeakReference<CustomInventory> {
+
+        private final NamespacedKey key;
+        private volatile Inventory inventory;
+        private volatile CustomInventory strong = null;
+
+        private Transient(CustomInventory customInventory, ReferenceQueue<CustomInventory> queue) {
+            super(customInventory, queue);
+            this.key = customInventory.getKey();
+            this.inventory = customInventory.getInventory();
+        }
     }
 
 }
@@ -0,0 +1,81 @@
+package com.github.toodles02.easygui.api.manager;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of empty bukkit {@link Inventory} objects, bucketed by type, size and title.
+ * <p>
+ * Bukkit bakes the title of an inventory in when it is created, so only inventories with the same type, size and
+ * title can be reused for each other. The pool must only be used from the main thread.
+ */
+public class InventoryPool {
+
+    /**
+     * The maximum amount of idle inventories kept per bucket.
+     */
+    private static final int maxIdle = 16;
+
+    private static final Map<Bucket, Deque<Inventory>> idle = new HashMap<>();
+
+    /**
+     * Returns an empty chest {@link Inventory} of the provided size and title, reusing an idle one if there is one.
+     *
+     * @param size The size of the inventory, a multiple of 9.
+     * @param title The title of the inventory.
+     * @return An empty {@link Inventory}.
+     */
+    public static Inventory acquire(int size, Component title) {
+        Inventory inventory = poll(new Bucket(InventoryType.CHEST, size, title));
+        return inventory != null ? inventory : Bukkit.createInventory(null, size, title);
+    }
+
+    /**
+     * Returns an empty {@link Inventory} of the provided type and title, reusing an idle one if there is one.
+     *
+     * @param type The {@link InventoryType} of the inventory.
+     * @param title The title of the inventory.
+     * @return An empty {@link Inventory}.
+     */
+    public static Inventory acquire(InventoryType type, Component title) {
+        Inventory inventory = poll(new Bucket(type, type.getDefaultSize(), title));
+        return inventory != null ? inventory : Bukkit.createInventory(null, type, title);
+    }
+
+    /**
+     * Clears an inventory acquired from this pool and returns it to its bucket. The inventory must not have viewers.
+     *
+     * @param inventory The {@link Inventory} to be released.
+     * @param title The title the inventory was acquired with.
+     */
+    public static void release(Inventory inventory, Component title) {
+        Deque<Inventory> inventories = idle.computeIfAbsent(new Bucket(inventory.getType(), inventory.getSize(), title), bucket -> new ArrayDeque<>());
+        if (inventories.size() < maxIdle) {
+            inventory.clear();
+            inventories.push(inventory);
+        }
+    }
+
+    /**
+     * Drops all idle inventories.
+     */
+    public static void clear() {
+        idle.clear();
+    }
+
+    private static Inventory poll(Bucket bucket) {
+        Deque<Inventory> inventories = idle.get(bucket);
+        return inventories == null ? null : inventories.poll();
+    }
+
+    private record Bucket(InventoryType type, int size, Component title) {
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.github.toodles02.easygui.api.manager;
+
+import com.github.toodles02.easygui.api.event.InventoryListener;
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import com.github.toodles02.easygui.api.inventory.InventoryHandler;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.*;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The manager of the bukkit listeners used by the {@link InventoryListener}.
+ * <p>
+ * A listener is only registered for an event type while at least one registered inventory has a handler for it.
+ * This keeps events that fire constantly, like {@link InventoryMoveItemEvent} for every hopper, away from EasyGUI
+ * unless an inventory actually wants them.
+ */
+public class ListenerManager {
+
+    private static final InventoryListener listener = new InventoryListener();
+
+    private static final List<Binding> bindings = List.of(
+            new Binding(InventoryOpenEvent.class, (l, event) -> {
+                if (event instanceof InventoryOpenEvent e) listener.onOpen(e);
+            }),
+            new Binding(InventoryOpenEvent.class, EventPriority.MONITOR, (l, event) -> {
+                if (event instanceof InventoryOpenEvent e) listener.onOpened(e);
+            }),
+            new Binding(InventoryCloseEvent.class, (l, event) -> {
+                if (event instanceof InventoryCloseEvent e) listener.onClose(e);
+            }),
+            new Binding(InventoryClickEvent.class, (l, event) -> {
+                if (event instanceof InventoryClickEvent e) listener.onClick(e);
+            }),
+            new Binding(InventoryDragEvent.class, (l, event) -> {
+                if (event instanceof InventoryDragEvent e) listener.onDrag(e);
+            }),
+            new Binding(InventoryMoveItemEvent.class, (l, event) -> {
+                if (event instanceof InventoryMoveItemEvent e) listener.onEntityMoveItem(e);
+            }),
+            new Binding(InventoryCreativeEvent.class, (l, event) -> {
+                if (event instanceof InventoryCreativeEvent e) listener.onCreative(e);
+            }),
+            new Binding(InventoryPickupItemEvent.class, (l, event) -> {
+                if (event instanceof InventoryPickupItemEvent e) listener.onPickUp(e);
+            })
+    );
+
+    private static Plugin plugin = null;
+
+    /**
+     * Enables the manager, registering a listener for every event type the registered inventories use.
+     *
+     * @param plugin The {@link Plugin} owning the listeners.
+     */
+    public static synchronized void enable(Plugin plugin) {
+        ListenerManager.plugin = plugin;
+        update(InventoryManager.getInventories());
+    }
+
+    /**
+     * Disables the manager, unregistering all of its listeners.
+     */
+    public static synchronized void disable() {
+        for (Binding binding : bindings) {
+            binding.unregister();
+        }
+        plugin = null;
+    }
+
+    /**
+     * Makes sure a listener is registered for the provided event type. Called when a handler is set, so an inventory
+     * that is already registered starts receiving the event right away.
+     *
+     * @param eClass The event type.
+     */
+    public static synchronized void require(Class<? extends Event> eClass) {
+        for (Binding binding : bindings) {
+            if (binding.eClass == eClass) {
+                binding.register();
+            }
+        }
+    }
+
+    /**
+     * Keeps a listener registered for the provided event type, whether inventories use it or not.
+     *
+     * @param eClass The event type.
+     */
+    public static synchronized void pin(Class<? extends Event> eClass) {
+        for (Binding binding : bindings) {
+            if (binding.eClass == eClass) {
+                binding.pins++;
+                binding.register();
+            }
+        }
+    }
+
+    /**
+     * Releases a pin of {@link #pin(Class)}. The listener is unregistered if no inventory uses it.
+     *
+     * @param eClass The event type.
+     */
+    public static synchronized void unpin(Class<? extends Event> eClass) {
+        for (Binding binding : bindings) {
+            if (binding.eClass == eClass && binding.pins > 0) {
+                binding.pins--;
+            }
+        }
+        update(InventoryManager.getInventories());
+    }
+
+    /**
+     * Registers the listeners used by the provided inventories or by transient inventories, and unregisters the ones
+     * no inventory uses.
+     *
+     * @param inventories The registered inventories.
+     */
+    public static synchronized void update(Collection<CustomInventory> inventories) {
+        List<CustomInventory> transients = InventoryManager.getTransientInventories();
+        for (Binding binding : bindings) {
+            boolean used = binding.pins > 0 || uses(inventories, binding.eClass) || uses(transients, binding.eClass);
+            if (used) {
+                binding.register();
+            } else {
+                binding.unregister();
+            }
+        }
+    }
+
+    private static boolean uses(Collection<CustomInventory> inventories, Class<? extends Event> eClass) {
+        for (CustomInventory inventory : inventories) {
+            InventoryHandler handler = inventory.getHandler();
+            if (handler != null && handler.handles(eClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a listener is currently registered for the provided event type.
+     *
+     * @param eClass The event type.
+     * @return True if EasyGUI is listening to the event type.
+     */
+    public static synchronized boolean isListening(Class<? extends Event> eClass) {
+        for (Binding binding : bindings) {
+            if (binding.eClass == eClass) {
+                return binding.registered;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A bukkit listener for a single event type and priority, which can be registered and unregistered on its own.
+     */
+    private static final class Binding implements Listener {
+
+        private final Class<? extends Event> eClass;
+        private final EventPriority priority;
+        private final EventExecutor executor;
+        private boolean registered = false;
+        private int pins = 0;
+
+        private Binding(Class<? extends Event> eClass, EventExecutor executor) {
+            this(eClass, EventPriority.NORMAL, executor);
+        }
+
+        private Binding(Class<? extends Event> eClass, EventPriority priority, EventExecutor executor) {
+            this.eClass = eClass;
+            this.priority = priority;
+            this.executor = executor;
+        }
+
+        private void register() {
+            if (registered || plugin == null) {
+                return;
+            }
+            // monitors only see the outcome of an event
+            plugin.getServer().getPluginManager().registerEvent(eClass, this, priority, executor, plugin, priority == EventPriority.MONITOR);
+            registered = true;
+        }
+
+        private void unregister() {
+            if (!registered) {
+                return;
+            }
+            HandlerList.unregisterAll(this);
+            registered = false;
+        }
+    }
+
+}
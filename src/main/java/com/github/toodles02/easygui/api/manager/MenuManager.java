@@ -0,0 +1,468 @@
+package com.github.toodles02.easygui.api.manager;
+
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import com.github.toodles02.easygui.api.inventory.MenuBundle;
+import com.github.toodles02.easygui.api.inventory.MenuDefinition;
+import com.github.toodles02.easygui.api.inventory.ShapedInventory;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * The manager of the menus defined in YAML files, one {@link MenuDefinition} per file.
+ * <p>
+ * A menu is registered under the key of its plugin and its file name without the extension. The parsed definition of
+ * every file is cached with a checksum of the file, so loading a file again only rebuilds its menu if the file
+ * actually changed. {@link #watch(Plugin, Path)} reloads the files of a directory whenever they change: they are
+ * parsed on the watcher thread and only the menus of the changed files are rebuilt on the main thread, moving their
+ * viewers to the new inventory.
+ * <p>
+ * Actions are registered by name with {@link #registerAction(String, Consumer)} and resolved when a slot is clicked,
+ * so they can be registered before or after the menus are loaded. The {@code close} action is built in.
+ * <p>
+ * For many menus, {@link #loadBundle(Plugin, Path, Path)} compiles the files into a {@link MenuBundle} once, and
+ * afterwards only maps the bundle at startup. A bundled menu is built and registered the first time its key is looked
+ * up through {@link #materialize(NamespacedKey)}.
+ */
+public class MenuManager {
+
+    private static final Map<String, Consumer<InventoryClickEvent>> actions = new ConcurrentHashMap<>();
+
+    private static final Map<Path, Loaded> loaded = new ConcurrentHashMap<>();
+
+    private static final Map<Path, MenuBundle> bundles = new ConcurrentHashMap<>();
+
+    /**
+     * The bundled menus built by {@link #materialize(NamespacedKey)}, so they are replaced when their bundle is.
+     */
+    private static final Map<NamespacedKey, Built> built = new ConcurrentHashMap<>();
+
+    private static WatchService watcher = null;
+
+    static {
+        actions.put("close", event -> event.getWhoClicked().closeInventory());
+    }
+
+    /**
+     * Registers a named action which menu definitions can bind to letters.
+     *
+     * @param name The name of the action.
+     * @param action The handler run when a slot with that action is clicked.
+     */
+    public static void registerAction(String name, Consumer<InventoryClickEvent> action) {
+        actions.put(name, action);
+    }
+
+    /**
+     * Unregisters a named action. Slots bound to it do nothing until it is registered again.
+     *
+     * @param name The name of the action.
+     */
+    public static void unregisterAction(String name) {
+        actions.remove(name);
+    }
+
+    /**
+     * Loads every {@code .yml} file of the provided directory and registers its menu. Files which did not change since
+     * they were last loaded keep their menu. Must be called from the main thread.
+     *
+     * @param plugin The {@link Plugin} owning the menus, used for their keys.
+     * @param directory The directory of the menu files.
+     * @return The menus of the directory.
+     * @throws IOException If the directory can not be listed.
+     */
+    public static List<CustomInventory> load(Plugin plugin, Path directory) throws IOException {
+        List<CustomInventory> menus = new ArrayList<>();
+        for (Path file : list(directory)) {
+            Loaded menu = loadFile(plugin, file);
+            if (menu != null) {
+                menus.add(menu.inventory);
+            }
+        }
+        return menus;
+    }
+
+    /**
+     * Loads the menus of the provided directory from a bundle, compiling the bundle first if it does not exist or a
+     * file of the directory was added, changed or deleted after it was compiled. The menus are only built when they are first accessed.
+     * Must be called from the main thread.
+     *
+     * @param plugin The {@link Plugin} owning the menus, used for their keys.
+     * @param directory The directory of the menu files.
+     * @param file The bundle file.
+     * @return The loaded {@link MenuBundle}.
+     * @throws IOException If the directory can not be listed, or the bundle can not be written or read.
+     */
+    public static MenuBundle loadBundle(Plugin plugin, Path directory, Path file) throws IOException {
+        if (isStale(directory, file)) {
+            compile(plugin, directory, file);
+        }
+        return loadBundle(file);
+    }
+
+    /**
+     * Loads the menus of a bundle, replacing the bundle loaded before from the same file. The menus are only built
+     * when they are first accessed. Menus built from the replaced bundle are unregistered, and their viewers are
+     * moved to the menu of the new bundle. Must be called from the main thread.
+     *
+     * @param file The bundle file, see {@link MenuBundle#write(Path, java.util.Collection)}.
+     * @return The loaded {@link MenuBundle}.
+     * @throws IOException If the bundle can not be read.
+     */
+    public static MenuBundle loadBundle(Path file) throws IOException {
+        MenuBundle bundle = MenuBundle.open(file);
+        MenuBundle previous = bundles.put(file.toAbsolutePath().normalize(), bundle);
+        if (previous != null) {
+            drop(previous);
+        }
+        return bundle;
+    }
+
+    /**
+     * Unloads the bundle loaded from the provided file. Menus built from it are unregistered and closed for their
+     * viewers. Must be called from the main thread.
+     *
+     * @param file The bundle file.
+     * @return True if a bundle was loaded from the file.
+     */
+    public static boolean unloadBundle(Path file) {
+        MenuBundle previous = bundles.remove(file.toAbsolutePath().normalize());
+        if (previous == null) {
+            return false;
+        }
+        drop(previous);
+        return true;
+    }
+
+    /**
+     * Unregisters the menus built from a bundle which was replaced or unloaded, moving their viewers to the menu
+     * built from the bundles still loaded, if there is one.
+     */
+    private static void drop(MenuBundle bundle) {
+        for (Map.Entry<NamespacedKey, Built> entry : built.entrySet()) {
+            Built menu = entry.getValue();
+            if (menu.bundle != bundle || !built.remove(entry.getKey(), menu)) {
+                continue;
+            }
+            if (InventoryManager.get(entry.getKey()) != menu.inventory) {
+                continue;
+            }
+            InventoryManager.unregister(entry.getKey());
+
+            Inventory old = menu.inventory.getInventory();
+            if (old == null || old.getViewers().isEmpty()) {
+                continue;
+            }
+            CustomInventory replacement = materialize(entry.getKey());
+            for (HumanEntity viewer : new ArrayList<>(old.getViewers())) {
+                if (replacement != null && replacement.getInventory() != null) {
+                    viewer.openInventory(replacement.getInventory());
+                } else {
+                    viewer.closeInventory();
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiles every valid menu file of the provided directory into a bundle. Must be called from the main thread.
+     *
+     * @param plugin The {@link Plugin} owning the menus, used for their keys.
+     * @param directory The directory of the menu files.
+     * @param file The bundle file.
+     * @throws IOException If the directory can not be listed, or the bundle can not be written.
+     */
+    public static void compile(Plugin plugin, Path directory, Path file) throws IOException {
+        List<Path> menus = list(directory);
+        long source = fingerprint(menus);
+        List<MenuDefinition> definitions = new ArrayList<>();
+        for (Path menu : menus) {
+            Loaded current = loaded.get(menu);
+            Parsed parsed = parse(plugin, menu);
+            if (parsed != null && parsed.definition != null) {
+                definitions.add(parsed.definition);
+            } else if (parsed == null && current != null) {
+                definitions.add(current.definition);
+            }
+        }
+        MenuBundle.write(file, definitions, source);
+    }
+
+    /**
+     * Returns the menu registered under the provided key, building and registering the bundled menu of that key if it
+     * was not built yet. Must be called from the main thread.
+     *
+     * @param key The {@link NamespacedKey} of the menu.
+     * @return The registered menu, null if it is not registered and no loaded bundle has a menu with that key.
+     * @throws IllegalStateException If called from another thread than the main thread.
+     */
+    public static synchronized CustomInventory materialize(NamespacedKey key) throws IllegalStateException {
+        if (!Bukkit.isPrimaryThread()) {
+            throw new IllegalStateException("bundled menus must be built on the main thread");
+        }
+        CustomInventory registered = InventoryManager.get(key);
+        if (registered != null) {
+            return registered;
+        }
+
+        for (MenuBundle bundle : bundles.values()) {
+            MenuDefinition definition = bundle.getDefinition(key);
+            if (definition != null) {
+                CustomInventory inventory = definition.toInventory(actions::get).register();
+                built.put(key, new Built(bundle, inventory));
+                return inventory;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStale(Path directory, Path file) throws IOException {
+        if (Files.notExists(file)) {
+            return true;
+        }
+        long source = fingerprint(list(directory));
+        try {
+            return MenuBundle.readSource(file) != source;
+        } catch (IOException e) {
+            // written by another version
+            return true;
+        }
+    }
+
+    /**
+     * Hashes the names, sizes and modification times of the provided files with 64 bit FNV-1a, so adding, changing
+     * or deleting a file changes the fingerprint.
+     */
+    private static long fingerprint(List<Path> files) throws IOException {
+        long hash = 0xcbf29ce484222325L;
+        for (Path file : files) {
+            String entry = file.getFileName() + "\0" + Files.size(file) + "\0" + Files.getLastModifiedTime(file).toMillis() + "\n";
+            for (byte b : entry.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+        }
+        // never 0, which marks a bundle without fingerprint
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Returns the definition of a loaded menu.
+     *
+     * @param key The {@link NamespacedKey} of the menu.
+     * @return The {@link MenuDefinition}, null if no loaded file or bundle has a menu with that key.
+     */
+    public static MenuDefinition getDefinition(NamespacedKey key) {
+        for (Loaded menu : loaded.values()) {
+            if (menu.definition.getKey().equals(key)) {
+                return menu.definition;
+            }
+        }
+        for (MenuBundle bundle : bundles.values()) {
+            MenuDefinition definition = bundle.getDefinition(key);
+            if (definition != null) {
+                return definition;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Watches the provided directory, reloading the menus of its files when they are changed, created or deleted.
+     * Replaces a directory watched before.
+     *
+     * @param plugin The {@link Plugin} owning the menus, used for their keys and to schedule the reloads.
+     * @param directory The directory of the menu files.
+     * @throws IOException If the directory can not be watched.
+     */
+    public static synchronized void watch(Plugin plugin, Path directory) throws IOException {
+        stopWatching();
+        WatchService service = directory.getFileSystem().newWatchService();
+        directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        watcher = service;
+
+        Thread thread = new Thread(() -> watchLoop(plugin, directory, service), "EasyGUI Menu Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the directory of {@link #watch(Plugin, Path)}.
+     */
+    public static synchronized void stopWatching() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watcher.close();
+        } catch (IOException ignored) {
+        }
+        watcher = null;
+    }
+
+    private static void watchLoop(Plugin plugin, Path directory, WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                // editors write a file in several steps, collect the events until the directory settles
+                Thread.sleep(100);
+
+                Set<Path> changed = new LinkedHashSet<>();
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path name && isMenuFile(name)) {
+                            changed.add(directory.resolve(name));
+                        }
+                    }
+                    key.reset();
+                    key = service.poll();
+                }
+
+                for (Path file : changed) {
+                    Parsed parsed = parse(plugin, file);
+                    if (parsed != null) {
+                        Bukkit.getScheduler().runTask(plugin, () -> apply(plugin, file, parsed));
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private static Loaded loadFile(Plugin plugin, Path file) {
+        Parsed parsed = parse(plugin, file);
+        if (parsed != null) {
+            apply(plugin, file, parsed);
+        }
+        return loaded.get(file);
+    }
+
+    /**
+     * Reads and parses a menu file off the main thread.
+     *
+     * @return The parsed file, null if it did not change or is invalid.
+     */
+    private static Parsed parse(Plugin plugin, Path file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return new Parsed(0, null);
+        } catch (IOException e) {
+            plugin.getLogger().warning("failed to read menu " + file + ": " + e.getMessage());
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        long checksum = crc.getValue() ^ ((long) bytes.length << 32);
+        Loaded previous = loaded.get(file);
+        if (previous != null && previous.checksum == checksum) {
+            return null;
+        }
+
+        String name = file.getFileName().toString();
+        name = name.substring(0, name.length() - 4).toLowerCase();
+        try {
+            YamlConfiguration configuration = new YamlConfiguration();
+            configuration.loadFromString(new String(bytes, StandardCharsets.UTF_8));
+            return new Parsed(checksum, MenuDefinition.parse(new NamespacedKey(plugin, name), configuration));
+        } catch (InvalidConfigurationException | IllegalArgumentException | IllegalStateException e) {
+            plugin.getLogger().warning("failed to load menu " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the menu of a file with the parsed definition, or unregisters it if the file was deleted.
+     */
+    private static void apply(Plugin plugin, Path file, Parsed parsed) {
+        Loaded previous = loaded.get(file);
+        if (previous != null && previous.checksum == parsed.checksum) {
+            return;
+        }
+
+        if (parsed.definition == null) {
+            if (previous != null) {
+                loaded.remove(file);
+                InventoryManager.unregister(previous.definition.getKey());
+                previous.inventory.close();
+            }
+            return;
+        }
+
+        for (String action : parsed.definition.getActions().values()) {
+            if (!actions.containsKey(action)) {
+                plugin.getLogger().warning("menu " + file.getFileName() + " uses the unknown action " + action);
+            }
+        }
+
+        ShapedInventory inventory = parsed.definition.toInventory(actions::get);
+        inventory.register();
+        loaded.put(file, new Loaded(parsed.checksum, parsed.definition, inventory));
+
+        if (previous != null) {
+            if (!previous.definition.getKey().equals(parsed.definition.getKey())) {
+                InventoryManager.unregister(previous.definition.getKey());
+            }
+            Inventory old = previous.inventory.getInventory();
+            for (HumanEntity viewer : new ArrayList<>(old.getViewers())) {
+                viewer.openInventory(inventory.getInventory());
+            }
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(path -> isMenuFile(path.getFileName())).sorted().toList();
+        }
+    }
+
+    private static boolean isMenuFile(Path name) {
+        return name.toString().endsWith(".yml");
+    }
+
+    /**
+     * A parsed menu file, with a null definition if the file was deleted.
+     */
+    private record Parsed(long checksum, MenuDefinition definition) {
+    }
+
+    /**
+     * A loaded menu file and its registered inventory.
+     */
+    private record Loaded(long checksum, MenuDefinition definition, ShapedInventory inventory) {
+    }
+
+    /**
+     * A registered menu built from a bundle.
+     */
+    private record Built(MenuBundle bundle, CustomInventory inventory) {
+    }
+
+}
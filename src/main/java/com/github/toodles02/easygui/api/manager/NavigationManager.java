@@ -0,0 +1,168 @@
+package com.github.toodles02.easygui.api.manager;
+
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The manager of the navigation history of every player moving through nested menus, like shop, category, item and
+ * confirmation.
+ * <p>
+ * {@link #open(Player, CustomInventory)} remembers the menu the player is viewing before opening the next one, and
+ * {@link #back(Player)} reopens the last remembered menu as it was left, without building it again. The history of a
+ * player holds at most {@link #getMaxDepth()} menus, the oldest are forgotten first. It is dropped when the player
+ * closes the menu, rather than opening another inventory from it, and when they quit. Relies on the
+ * {@link SessionManager} to know the menu a player is viewing. Must only be used from the main thread.
+ */
+public class NavigationManager {
+
+    private static final Map<UUID, Deque<CustomInventory>> histories = new HashMap<>();
+
+    /**
+     * How many histories hold each inventory, so transient inventories are kept registered while they can be
+     * navigated back to.
+     */
+    private static final Map<CustomInventory, Integer> retained = new IdentityHashMap<>();
+
+    private static int maxDepth = 8;
+
+    /**
+     * Opens the provided inventory to the player, remembering the EasyGUI inventory they are viewing.
+     *
+     * @param player The {@link Player} to open the inventory for.
+     * @param inventory The inventory to be opened.
+     */
+    public static void open(Player player, CustomInventory inventory) {
+        CustomInventory current = SessionManager.getInventory(player);
+        if (current != null && current != inventory) {
+            Deque<CustomInventory> history = histories.computeIfAbsent(player.getUniqueId(), id -> new ArrayDeque<>());
+            history.push(current);
+            retain(current);
+            while (history.size() > maxDepth) {
+                release(history.removeLast());
+            }
+        }
+        inventory.open(player);
+    }
+
+    /**
+     * Reopens the last inventory the player navigated away from.
+     *
+     * @param player The {@link Player} navigating back.
+     * @return True if there was an inventory to go back to.
+     */
+    public static boolean back(Player player) {
+        Deque<CustomInventory> history = histories.get(player.getUniqueId());
+        if (history == null || history.isEmpty()) {
+            return false;
+        }
+
+        CustomInventory parent = history.pop();
+        if (history.isEmpty()) {
+            histories.remove(player.getUniqueId());
+        }
+        // opened before it is released, so a transient parent is not disposed in between
+        parent.open(player);
+        release(parent);
+        return true;
+    }
+
+    /**
+     * Drops the history of a player whose inventory was closed, unless it was closed to open another inventory.
+     * Called by the {@link com.github.toodles02.easygui.api.event.InventoryListener}.
+     *
+     * @param player The {@link UUID} of the player.
+     * @param reason The reason of the close.
+     */
+    public static void closed(UUID player, InventoryCloseEvent.Reason reason) {
+        if (reason != InventoryCloseEvent.Reason.OPEN_NEW) {
+            forget(player);
+        }
+    }
+
+    /**
+     * Drops the history of the provided player, e.g. when they quit.
+     *
+     * @param player The {@link UUID} of the player.
+     */
+    public static void forget(UUID player) {
+        Deque<CustomInventory> history = histories.remove(player);
+        if (history != null) {
+            for (CustomInventory inventory : history) {
+                release(inventory);
+            }
+        }
+    }
+
+    /**
+     * Returns the inventories the player can navigate back to, the most recent first.
+     *
+     * @param player The {@link UUID} of the player.
+     * @return An unmodifiable {@link List} of inventories, empty if the player has no history.
+     */
+    public static List<CustomInventory> getHistory(UUID player) {
+        Deque<CustomInventory> history = histories.get(player);
+        return history == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(history));
+    }
+
+    /**
+     * Returns whether the provided inventory is in the history of at least one player.
+     *
+     * @param inventory The inventory.
+     * @return True if a player can navigate back to the inventory.
+     */
+    public static boolean isRetained(CustomInventory inventory) {
+        return retained.containsKey(inventory);
+    }
+
+    /**
+     * Returns the maximum amount of inventories in the history of a player.
+     * @return The maximum depth.
+     */
+    public static int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Sets the maximum amount of inventories in the history of a player. Defaults to 8. Longer histories are cut the
+     * next time the player navigates.
+     *
+     * @param depth The maximum depth.
+     * @throws IllegalArgumentException If the depth is less than 1.
+     */
+    public static void setMaxDepth(int depth) throws IllegalArgumentException {
+        if (depth < 1) {
+            throw new IllegalArgumentException("invalid depth");
+        }
+        maxDepth = depth;
+    }
+
+    /**
+     * Drops every history.
+     */
+    public static void clear() {
+        histories.clear();
+        retained.clear();
+    }
+
+    private static void retain(CustomInventory inventory) {
+        retained.merge(inventory, 1, Integer::sum);
+    }
+
+    private static void release(CustomInventory inventory) {
+        if (retained.computeIfPresent(inventory, (i, count) -> count > 1 ? count - 1 : null) == null) {
+            InventoryManager.released(inventory);
+        }
+    }
+
+}
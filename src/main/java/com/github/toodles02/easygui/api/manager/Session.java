@@ -0,0 +1,58 @@
+package com.github.toodles02.easygui.api.manager;
+
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import org.bukkit.inventory.Inventory;
+
+import java.util.UUID;
+
+/**
+ * The EasyGUI inventory a player is currently viewing, tracked by the {@link SessionManager}.
+ */
+public final class Session {
+
+    private final UUID player;
+    private final CustomInventory inventory;
+    private final Inventory view;
+    private final long opened;
+
+    Session(UUID player, CustomInventory inventory, Inventory view, long opened) {
+        this.player = player;
+        this.inventory = inventory;
+        this.view = view;
+        this.opened = opened;
+    }
+
+    /**
+     * Returns the {@link UUID} of the viewing player.
+     * @return {@link UUID}.
+     */
+    public UUID getPlayer() {
+        return player;
+    }
+
+    /**
+     * Returns the inventory the player is viewing.
+     * @return {@link CustomInventory}.
+     */
+    public CustomInventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Returns the bukkit inventory the player is viewing, which differs from the inventory of
+     * {@link #getInventory()} for inventories with one bukkit inventory per viewer.
+     * @return {@link Inventory}.
+     */
+    public Inventory getView() {
+        return view;
+    }
+
+    /**
+     * Returns when the player opened the inventory.
+     * @return The time in milliseconds, from {@link System#currentTimeMillis()}.
+     */
+    public long getOpened() {
+        return opened;
+    }
+
+}
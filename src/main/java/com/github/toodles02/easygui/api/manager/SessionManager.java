@@ -0,0 +1,174 @@
+package com.github.toodles02.easygui.api.manager;
+
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.inventory.Inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The manager of the {@link Session} of every player viewing an EasyGUI inventory.
+ * <p>
+ * Sessions are updated from the open and close events of the
+ * {@link com.github.toodles02.easygui.api.event.InventoryListener}, and dropped when the player quits, which includes
+ * being kicked. Looking up the inventory of a player and the viewers of an inventory costs the same no matter how many
+ * inventories are registered. Must only be used from the main thread.
+ */
+public class SessionManager {
+
+    private static final Map<UUID, Session> sessions = new HashMap<>();
+    private static final Map<CustomInventory, Set<UUID>> viewers = new IdentityHashMap<>();
+
+    private static boolean enabled = false;
+
+    /**
+     * Enables the manager, keeping the open and close listeners registered so every session is tracked.
+     */
+    public static void enable() {
+        if (enabled) {
+            return;
+        }
+        ListenerManager.pin(InventoryOpenEvent.class);
+        ListenerManager.pin(InventoryCloseEvent.class);
+        enabled = true;
+    }
+
+    /**
+     * Disables the manager and drops every session.
+     */
+    public static void disable() {
+        if (!enabled) {
+            return;
+        }
+        ListenerManager.unpin(InventoryOpenEvent.class);
+        ListenerManager.unpin(InventoryCloseEvent.class);
+        sessions.clear();
+        viewers.clear();
+        enabled = false;
+    }
+
+    /**
+     * Starts the session of a player who opened an inventory, ending their previous one.
+     *
+     * @param player The {@link UUID} of the player.
+     * @param inventory The opened inventory.
+     * @param view The opened bukkit {@link Inventory}.
+     */
+    public static void open(UUID player, CustomInventory inventory, Inventory view) {
+        end(player);
+        sessions.put(player, new Session(player, inventory, view, System.currentTimeMillis()));
+        viewers.computeIfAbsent(inventory, i -> new LinkedHashSet<>()).add(player);
+    }
+
+    /**
+     * Ends the session of a player who closed the provided bukkit inventory. Does nothing if the player's session is
+     * of another inventory.
+     *
+     * @param player The {@link UUID} of the player.
+     * @param view The closed bukkit {@link Inventory}.
+     */
+    public static void close(UUID player, Inventory view) {
+        Session session = sessions.get(player);
+        if (session != null && session.getView() == view) {
+            end(player);
+        }
+    }
+
+    /**
+     * Ends the session of a player, e.g. when they quit.
+     *
+     * @param player The {@link UUID} of the player.
+     * @return The ended {@link Session}, null if the player had none.
+     */
+    public static Session end(UUID player) {
+        Session session = sessions.remove(player);
+        if (session == null) {
+            return null;
+        }
+
+        Set<UUID> inventoryViewers = viewers.get(session.getInventory());
+        if (inventoryViewers != null) {
+            inventoryViewers.remove(player);
+            if (inventoryViewers.isEmpty()) {
+                viewers.remove(session.getInventory());
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Returns the session of the provided player.
+     *
+     * @param player The {@link UUID} of the player.
+     * @return The {@link Session}, null if the player is not viewing an EasyGUI inventory.
+     */
+    public static Session getSession(UUID player) {
+        return sessions.get(player);
+    }
+
+    /**
+     * Returns the inventory the provided player is viewing.
+     *
+     * @param player The {@link Player}.
+     * @return The {@link CustomInventory}, null if the player is not viewing an EasyGUI inventory.
+     */
+    public static CustomInventory getInventory(Player player) {
+        Session session = sessions.get(player.getUniqueId());
+        return session == null ? null : session.getInventory();
+    }
+
+    /**
+     * Returns the players viewing the provided inventory, including the viewers of all of its bukkit inventories.
+     *
+     * @param inventory The inventory.
+     * @return An unmodifiable {@link Set} of player {@link UUID}, empty if there are no viewers.
+     */
+    public static Set<UUID> getViewers(CustomInventory inventory) {
+        Set<UUID> inventoryViewers = viewers.get(inventory);
+        return inventoryViewers == null ? Collections.emptySet() : Collections.unmodifiableSet(inventoryViewers);
+    }
+
+    /**
+     * Closes the provided inventory for all of its viewers.
+     *
+     * @param inventory The inventory.
+     * @return The amount of closed sessions.
+     */
+    public static int closeAll(CustomInventory inventory) {
+        Set<UUID> inventoryViewers = viewers.get(inventory);
+        if (inventoryViewers == null) {
+            return 0;
+        }
+
+        List<UUID> closing = new ArrayList<>(inventoryViewers);
+        for (UUID id : closing) {
+            Player player = Bukkit.getPlayer(id);
+            if (player != null) {
+                player.closeInventory();
+            }
+            // the close event already ended the session, unless the listener missed it
+            end(id);
+        }
+        return closing.size();
+    }
+
+    /**
+     * Returns the amount of players viewing an EasyGUI inventory.
+     * @return The amount of sessions.
+     */
+    public static int size() {
+        return sessions.size();
+    }
+
+}
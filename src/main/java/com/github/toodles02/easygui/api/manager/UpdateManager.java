@@ -0,0 +1,54 @@
+package com.github.toodles02.easygui.api.manager;
+
+import com.github.toodles02.easygui.EasyGUI;
+import com.github.toodles02.easygui.api.inventory.VanillaInventory;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The manager flushing the dirty slots of {@link VanillaInventory} once per tick.
+ * <p>
+ * Must only be used from the main thread.
+ */
+public class UpdateManager {
+
+    private static final Set<VanillaInventory> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private static BukkitTask task = null;
+
+    /**
+     * Schedules the provided inventory to be flushed on the next tick. Scheduling it again within the same tick does
+     * nothing.
+     *
+     * @param inventory The {@link VanillaInventory} with dirty slots.
+     */
+    public static void schedule(VanillaInventory inventory) {
+        pending.add(inventory);
+        if (task == null) {
+            task = Bukkit.getScheduler().runTask(EasyGUI.getInstance(), UpdateManager::flush);
+        }
+    }
+
+    /**
+     * Flushes every scheduled inventory right away.
+     */
+    public static void flush() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        List<VanillaInventory> inventories = new ArrayList<>(pending);
+        pending.clear();
+        for (VanillaInventory inventory : inventories) {
+            inventory.flush();
+        }
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.github.toodles02.easygui.api.metrics;
+
+import com.github.toodles02.easygui.EasyGUI;
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryInteractEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * An optional watchdog flagging handler invocations which block the main thread for longer than a threshold.
+ * <p>
+ * While a handler runs, a background thread samples the stack of the main thread once the threshold is exceeded, so
+ * the log shows where the handler was stuck rather than where it finished. Every slow invocation is logged with the
+ * inventory, event type, slot and player, repeated offenders of the same inventory and event type are logged at most
+ * once per log interval. Disabled by default.
+ */
+public class HandlerWatchdog {
+
+    private static volatile boolean enabled = false;
+    private static volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    private static long logIntervalNanos = TimeUnit.SECONDS.toNanos(60);
+
+    private static ScheduledExecutorService sampler = null;
+
+    private static volatile Thread mainThread = null;
+    private static volatile long started = 0;
+    private static volatile StackTraceElement[] sample = null;
+    private static int depth = 0;
+
+    private static final Map<String, Offender> offenders = new HashMap<>();
+
+    /**
+     * Returns whether the watchdog is enabled.
+     * @return True if the watchdog is enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables the watchdog.
+     *
+     * @param thresholdMillis The duration in milliseconds above which a handler invocation is flagged.
+     * @throws IllegalArgumentException If the threshold is less than 1.
+     */
+    public static synchronized void enable(long thresholdMillis) throws IllegalArgumentException {
+        if (thresholdMillis < 1) {
+            throw new IllegalArgumentException("invalid threshold");
+        }
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EasyGUI Watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, thresholdMillis / 4);
+        sampler.scheduleAtFixedRate(HandlerWatchdog::sample, period, period, TimeUnit.MILLISECONDS);
+        enabled = true;
+    }
+
+    /**
+     * Disables the watchdog.
+     */
+    public static synchronized void disable() {
+        enabled = false;
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    /**
+     * Returns the threshold above which a handler invocation is flagged.
+     * @return The threshold in milliseconds.
+     */
+    public static long getThreshold() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Sets how often the same inventory and event type may be logged. Defaults to 60 seconds.
+     *
+     * @param seconds The interval in seconds.
+     */
+    public static void setLogInterval(long seconds) {
+        logIntervalNanos = TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    /**
+     * Marks the start of a handler invocation on the main thread. Called by the
+     * {@link com.github.toodles02.easygui.api.event.InventoryListener}.
+     *
+     * @param now The current time, from {@link System#nanoTime()}.
+     */
+    public static void enter(long now) {
+        if (depth++ > 0) {
+            return;
+        }
+        mainThread = Thread.currentThread();
+        sample = null;
+        started = now;
+    }
+
+    /**
+     * Marks the end of a handler invocation, logging it if it took longer than the threshold.
+     *
+     * @param inventory The inventory the event was dispatched to.
+     * @param event The event.
+     * @param nanos The time the handlers took, in nanoseconds.
+     */
+    public static void exit(CustomInventory inventory, Event event, long nanos) {
+        if (--depth > 0) {
+            return;
+        }
+        started = 0;
+        StackTraceElement[] stack = sample;
+        sample = null;
+
+        if (nanos < thresholdNanos) {
+            return;
+        }
+
+        String type = event.getClass().getSimpleName();
+        String key = inventory.getKey() + " " + type;
+        long now = System.nanoTime();
+        Offender offender = offenders.computeIfAbsent(key, k -> new Offender());
+        if (offender.logged != 0 && now - offender.logged < logIntervalNanos) {
+            offender.suppressed++;
+            return;
+        }
+
+        StringBuilder message = new StringBuilder()
+                .append("Slow handler: ").append(inventory.getKey())
+                .append(" handled ").append(type)
+                .append(" in ").append(String.format("%.1fms", nanos / 1_000_000d))
+                .append(" (slot ").append(slot(event))
+                .append(", player ").append(player(event)).append(')');
+        if (offender.suppressed > 0) {
+            message.append(", ").append(offender.suppressed).append(" similar invocations were not logged");
+        }
+        if (stack != null) {
+            message.append("\nMain thread while the handler was running:");
+            for (StackTraceElement element : stack) {
+                message.append("\n\tat ").append(element);
+            }
+        }
+
+        offender.logged = now;
+        offender.suppressed = 0;
+        EasyGUI.getInstance().getLogger().log(Level.WARNING, message.toString());
+    }
+
+    private static void sample() {
+        long start = started;
+        Thread thread = mainThread;
+        if (start == 0 || thread == null || sample != null || System.nanoTime() - start < thresholdNanos) {
+            return;
+        }
+
+        StackTraceElement[] stack = thread.getStackTrace();
+        if (started == start) {
+            sample = stack;
+        }
+    }
+
+    private static String slot(Event event) {
+        if (event instanceof InventoryClickEvent click) {
+            return String.valueOf(click.getRawSlot());
+        }
+        if (event instanceof InventoryDragEvent drag) {
+            return drag.getRawSlots().toString();
+        }
+        return "none";
+    }
+
+    private static String player(Event event) {
+        HumanEntity player = null;
+        if (event instanceof InventoryInteractEvent interact) {
+            player = interact.getWhoClicked();
+        } else if (event instanceof InventoryOpenEvent open) {
+            player = open.getPlayer();
+        } else if (event instanceof InventoryCloseEvent close) {
+            player = close.getPlayer();
+        }
+        return player == null ? "none" : player.getName();
+    }
+
+    /**
+     * The log state of an inventory and event type.
+     */
+    private static final class Offender {
+
+        private long logged = 0;
+        private int suppressed = 0;
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.github.toodles02.easygui.api.metrics;
+
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import com.github.toodles02.easygui.api.inventory.InventoryHandler;
+import com.github.toodles02.easygui.api.manager.ListenerManager;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional instrumentation of handler dispatch, recording per inventory and event type how often handlers ran and how
+ * long they took, as well as opens, closes and current viewers.
+ * <p>
+ * Disabled by default. While disabled, the only cost in the event path is reading a single flag.
+ */
+public class InventoryMetrics {
+
+    private static volatile boolean enabled = false;
+
+    private static final Map<NamespacedKey, MenuStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Returns whether metrics are being recorded.
+     * @return True if metrics are enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables recording metrics. Enabling it keeps EasyGUI listening to opens and closes of every inventory,
+     * even those without open or close handlers.
+     *
+     * @param enabled True to record metrics.
+     */
+    public static synchronized void setEnabled(boolean enabled) {
+        if (InventoryMetrics.enabled == enabled) {
+            return;
+        }
+        InventoryMetrics.enabled = enabled;
+        if (enabled) {
+            ListenerManager.pin(InventoryOpenEvent.class);
+            ListenerManager.pin(InventoryCloseEvent.class);
+        } else {
+            ListenerManager.unpin(InventoryOpenEvent.class);
+            ListenerManager.unpin(InventoryCloseEvent.class);
+        }
+    }
+
+    /**
+     * Records a handler dispatch. Called by the {@link com.github.toodles02.easygui.api.event.InventoryListener}.
+     *
+     * @param inventory The inventory the event was dispatched to.
+     * @param event The event.
+     * @param nanos The time the handlers took, in nanoseconds.
+     */
+    public static void record(CustomInventory inventory, Event event, long nanos) {
+        int index = InventoryHandler.getEventIndex(event.getClass());
+        if (index == -1) {
+            return;
+        }
+
+        MenuStats menu = stats.computeIfAbsent(inventory.getKey(), MenuStats::new);
+        menu.record(index, nanos);
+        if (event instanceof InventoryCloseEvent) {
+            menu.closed();
+        }
+    }
+
+    /**
+     * Records an open which no plugin cancelled. Called by the
+     * {@link com.github.toodles02.easygui.api.event.InventoryListener} at the monitor priority, as handlers of other
+     * plugins may still cancel the open after the handlers of the inventory ran.
+     *
+     * @param inventory The opened inventory.
+     */
+    public static void opened(CustomInventory inventory) {
+        if (enabled) {
+            stats.computeIfAbsent(inventory.getKey(), MenuStats::new).opened();
+        }
+    }
+
+    /**
+     * Returns the statistics of the provided inventory.
+     *
+     * @param key The {@link NamespacedKey} of the inventory.
+     * @return {@link MenuStats}, null if nothing was recorded for it.
+     */
+    public static MenuStats get(NamespacedKey key) {
+        return stats.get(key);
+    }
+
+    /**
+     * Returns the statistics of every inventory something was recorded for.
+     * @return A list of {@link MenuStats}.
+     */
+    public static List<MenuStats> getAll() {
+        return new ArrayList<>(stats.values());
+    }
+
+    /**
+     * Drops all recorded statistics.
+     */
+    public static void reset() {
+        stats.clear();
+    }
+
+}
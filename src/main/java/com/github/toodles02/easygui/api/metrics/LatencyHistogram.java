@@ -0,0 +1,112 @@
+package com.github.toodles02.easygui.api.metrics;
+
+/**
+ * A histogram of latencies with fixed, power of two sized buckets.
+ * <p>
+ * Bucket {@code i} counts latencies below {@code 2^i} microseconds, the last bucket counts everything above. Recording
+ * a latency is a few arithmetic operations and never allocates.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The amount of buckets, the last one starts at roughly 4 seconds.
+     */
+    public static final int buckets = 23;
+
+    private final long[] counts = new long[buckets];
+    private long count = 0;
+    private long total = 0;
+    private long max = 0;
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long micros = nanos / 1000;
+        int bucket = Math.min(buckets - 1, 64 - Long.numberOfLeadingZeros(micros));
+        counts[bucket]++;
+        count++;
+        total += nanos;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    /**
+     * Returns the amount of recorded latencies.
+     * @return The amount of latencies.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded latencies.
+     * @return The total in nanoseconds.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the highest recorded latency.
+     * @return The maximum in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     * @return The mean in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getMean() {
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * Returns an upper bound of the provided percentile, the upper edge of the bucket it falls into.
+     *
+     * @param percentile The percentile, between 0 and 1.
+     * @return The upper bound in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(count * percentile);
+        long seen = 0;
+        for (int i = 0; i < buckets; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return i == buckets - 1 ? max : Math.min(max, (1L << i) * 1000);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns a copy of the bucket counts.
+     * @return The counts of every bucket.
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+
+    /**
+     * Adds the counts of another histogram to this one.
+     *
+     * @param other The {@link LatencyHistogram} to be added.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < buckets; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.github.toodles02.easygui.api.metrics;
+
+import com.github.toodles02.easygui.api.inventory.InventoryHandler;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.Event;
+
+/**
+ * The statistics recorded by {@link InventoryMetrics} for a single inventory.
+ */
+public final class MenuStats {
+
+    private final NamespacedKey key;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[InventoryHandler.getEventTypes().size()];
+
+    private long opens = 0;
+    private long closes = 0;
+    private int viewers = 0;
+
+    MenuStats(NamespacedKey key) {
+        this.key = key;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    void record(int eventIndex, long nanos) {
+        histograms[eventIndex].record(nanos);
+    }
+
+    void opened() {
+        opens++;
+        viewers++;
+    }
+
+    void closed() {
+        closes++;
+        viewers = Math.max(0, viewers - 1);
+    }
+
+    /**
+     * Returns the {@link NamespacedKey} of the inventory.
+     * @return {@link NamespacedKey}.
+     */
+    public NamespacedKey getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the handler latencies of the provided event type.
+     *
+     * @param eClass The event type, see {@link InventoryHandler#getEventTypes()}.
+     * @return {@link LatencyHistogram}, null if the event type is not supported.
+     */
+    public LatencyHistogram getLatency(Class<? extends Event> eClass) {
+        int index = InventoryHandler.getEventIndex(eClass);
+        return index == -1 ? null : histograms[index];
+    }
+
+    /**
+     * Returns the handler latencies of all event types combined.
+     * @return A new {@link LatencyHistogram}.
+     */
+    public LatencyHistogram getTotalLatency() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (LatencyHistogram histogram : histograms) {
+            total.add(histogram);
+        }
+        return total;
+    }
+
+    /**
+     * Returns how often the inventory was opened.
+     * @return The amount of opens.
+     */
+    public long getOpens() {
+        return opens;
+    }
+
+    /**
+     * Returns how often the inventory was closed.
+     * @return The amount of closes.
+     */
+    public long getCloses() {
+        return closes;
+    }
+
+    /**
+     * Returns the amount of players currently viewing the inventory.
+     * @return The amount of viewers.
+     */
+    public int getViewers() {
+        return viewers;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.github.toodles02.easygui.api.trace;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.ClickType;
+
+/**
+ * An inventory event read from a trace, see {@link TraceReader}.
+ *
+ * @param micros The time of the event in microseconds, relative to the start of its trace file.
+ * @param key The {@link NamespacedKey} of the inventory the event was dispatched to.
+ * @param type The event type, one of {@link com.github.toodles02.easygui.api.inventory.InventoryHandler#getEventTypes()}.
+ * @param player The index of the player within the trace file, starting from 1, 0 if the event has no player.
+ * @param rawSlot The raw slot of a click or the first slot of a drag, -1 if the event has no slot.
+ * @param click The {@link ClickType} of a click, null if the event is not a click.
+ */
+public record TraceEvent(long micros, NamespacedKey key, Class<? extends Event> type, int player, int rawSlot, ClickType click) {
+}
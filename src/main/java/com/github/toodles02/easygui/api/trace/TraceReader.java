@@ -0,0 +1,143 @@
+package com.github.toodles02.easygui.api.trace;
+
+import com.github.toodles02.easygui.api.inventory.InventoryHandler;
+import org.bukkit.NamespacedKey;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.ClickType;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A reader of the trace files written by the {@link TraceRecorder}.
+ */
+public final class TraceReader implements Closeable {
+
+    private static final ClickType[] clicks = ClickType.values();
+
+    private final InputStream in;
+    private final long started;
+    private final List<NamespacedKey> keys = new ArrayList<>();
+    private long micros = 0;
+
+    /**
+     * Opens a trace file.
+     *
+     * @param file The trace file.
+     * @throws IOException If the file can not be read, or is not a trace file.
+     */
+    public TraceReader(Path file) throws IOException {
+        this.in = new BufferedInputStream(Files.newInputStream(file));
+        if (readInt() != TraceRecorder.magic || read() != TraceRecorder.version) {
+            in.close();
+            throw new IOException("invalid trace file " + file);
+        }
+        this.started = ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the trace files of a directory in the order they were written.
+     *
+     * @param directory The directory the {@link TraceRecorder} wrote to.
+     * @return A {@link List} of trace files, oldest first.
+     * @throws IOException If the directory can not be listed.
+     */
+    public static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(path -> path.getFileName().toString().endsWith(TraceRecorder.extension)).sorted().toList();
+        }
+    }
+
+    /**
+     * Returns the time the trace file was started at.
+     * @return The start of the file in milliseconds since the epoch.
+     */
+    public long getStarted() {
+        return started;
+    }
+
+    /**
+     * Reads the next event of the trace.
+     *
+     * @return The next {@link TraceEvent}, null at the end of the trace.
+     * @throws IOException If the file can not be read, or is corrupted.
+     */
+    public TraceEvent next() throws IOException {
+        int first = in.read();
+        if (first == -1) {
+            return null;
+        }
+        micros += readVarLong(first);
+
+        int keyId = (int) readVarLong(read());
+        if (keyId == keys.size()) {
+            byte[] bytes = in.readNBytes((int) readVarLong(read()));
+            NamespacedKey key = NamespacedKey.fromString(new String(bytes, StandardCharsets.UTF_8));
+            if (key == null) {
+                throw new IOException("invalid key in trace");
+            }
+            keys.add(key);
+        } else if (keyId > keys.size()) {
+            throw new IOException("invalid key in trace");
+        }
+
+        int typeIndex = read();
+        List<Class<? extends Event>> types = InventoryHandler.getEventTypes();
+        if (typeIndex >= types.size()) {
+            throw new IOException("invalid event type in trace");
+        }
+
+        int player = (int) readVarLong(read());
+        int zigzag = (int) readVarLong(read());
+        int rawSlot = (zigzag >>> 1) ^ -(zigzag & 1);
+        int click = read();
+
+        return new TraceEvent(micros, keys.get(keyId), types.get(typeIndex), player, rawSlot,
+                click == 0 || click > clicks.length ? null : clicks[click - 1]);
+    }
+
+    /**
+     * Closes the trace file.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int read() throws IOException {
+        int value = in.read();
+        if (value == -1) {
+            throw new EOFException("truncated trace");
+        }
+        return value;
+    }
+
+    private int readInt() throws IOException {
+        return (read() << 24) | (read() << 16) | (read() << 8) | read();
+    }
+
+    private long readVarLong(int first) throws IOException {
+        long value = first & 0x7F;
+        int shift = 7;
+        int current = first;
+        while ((current & 0x80) != 0) {
+            if (shift > 63) {
+                throw new IOException("invalid number in trace");
+            }
+            current = read();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+
+}
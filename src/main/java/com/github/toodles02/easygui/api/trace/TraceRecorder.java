@@ -0,0 +1,295 @@
+package com.github.toodles02.easygui.api.trace;
+
+import com.github.toodles02.easygui.EasyGUI;
+import com.github.toodles02.easygui.api.inventory.CustomInventory;
+import com.github.toodles02.easygui.api.inventory.InventoryHandler;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryInteractEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * An opt-in recorder writing every inventory event dispatched by the
+ * {@link com.github.toodles02.easygui.api.event.InventoryListener} to a compact binary trace.
+ * <p>
+ * A record holds the time since the previous record, the inventory key, the event type, the player, the raw slot and
+ * the click type, mostly as variable length integers. Keys are written once per file and players are numbered per
+ * file instead of writing their {@link UUID}. Records are encoded on the main thread into a buffer, full buffers are
+ * written by a background thread. Once a file exceeds its maximum size a new one is started, and the oldest files
+ * are deleted. See {@link TraceReader} for reading the traces back. Must only be used from the main thread.
+ */
+public final class TraceRecorder {
+
+    /**
+     * The magic number every trace file starts with, "EGTR".
+     */
+    static final int magic = 0x45475452;
+    static final int version = 1;
+    static final String extension = ".egtr";
+
+    private static final int bufferSize = 64 * 1024;
+
+    private static TraceRecorder recorder = null;
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final ExecutorService writer;
+
+    private final Map<String, Integer> keys = new HashMap<>();
+    private final Map<UUID, Integer> players = new HashMap<>();
+    private byte[] buffer = new byte[bufferSize];
+    private int position = 0;
+    private boolean newFile = true;
+    private long fileBytes = 0;
+    private long fileStart = 0;
+    private long last = 0;
+
+    private OutputStream out = null;
+    private int files = 0;
+
+    private TraceRecorder(Path directory, long maxFileBytes, int maxFiles) {
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EasyGUI Trace");
+            thread.setDaemon(true);
+            return thread;
+        });
+        startFile();
+    }
+
+    /**
+     * Starts recording into the provided directory, stopping a recording in progress.
+     *
+     * @param directory The directory of the trace files, created if it does not exist.
+     * @param maxFileBytes The size in bytes after which a new file is started.
+     * @param maxFiles The maximum amount of trace files kept in the directory.
+     * @throws IOException If the directory can not be created.
+     * @throws IllegalArgumentException If the maximum file size or amount of files is less than 1.
+     */
+    public static void start(Path directory, long maxFileBytes, int maxFiles) throws IOException, IllegalArgumentException {
+        if (maxFileBytes < 1) {
+            throw new IllegalArgumentException("invalid file size");
+        }
+        if (maxFiles < 1) {
+            throw new IllegalArgumentException("invalid amount of files");
+        }
+        stop();
+        Files.createDirectories(directory);
+        recorder = new TraceRecorder(directory, maxFileBytes, maxFiles);
+    }
+
+    /**
+     * Stops recording, writing the buffered records and closing the current file.
+     */
+    public static void stop() {
+        TraceRecorder stopped = recorder;
+        if (stopped == null) {
+            return;
+        }
+        recorder = null;
+        stopped.submit();
+        stopped.writer.execute(stopped::closeFile);
+        stopped.writer.shutdown();
+        try {
+            stopped.writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns whether events are being recorded.
+     * @return True if a recording is in progress.
+     */
+    public static boolean isRecording() {
+        return recorder != null;
+    }
+
+    /**
+     * Records an event dispatched to the provided inventory. Does nothing if no recording is in progress.
+     *
+     * @param inventory The inventory the event is dispatched to.
+     * @param event The event.
+     */
+    public static void record(CustomInventory inventory, Event event) {
+        TraceRecorder recorder = TraceRecorder.recorder;
+        if (recorder != null) {
+            recorder.write(inventory, event);
+        }
+    }
+
+    private void write(CustomInventory inventory, Event event) {
+        int type = InventoryHandler.getEventIndex(event.getClass());
+        if (type == -1) {
+            return;
+        }
+        if (position > bufferSize - 512) {
+            submit();
+        }
+        if (fileBytes + position > maxFileBytes) {
+            submit();
+            startFile();
+        }
+
+        long now = System.nanoTime();
+        writeVarLong(TimeUnit.NANOSECONDS.toMicros(now - last));
+        last = now;
+
+        String key = inventory.getKey().toString();
+        Integer keyId = keys.get(key);
+        if (keyId == null) {
+            keyId = keys.size();
+            keys.put(key, keyId);
+            writeVarLong(keyId);
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensure(bytes.length + 32);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        } else {
+            writeVarLong(keyId);
+        }
+
+        buffer[position++] = (byte) type;
+        writeVarLong(player(event));
+
+        int rawSlot = -1;
+        int click = 0;
+        if (event instanceof InventoryClickEvent clickEvent) {
+            rawSlot = clickEvent.getRawSlot();
+            click = clickEvent.getClick().ordinal() + 1;
+        } else if (event instanceof InventoryDragEvent drag && !drag.getRawSlots().isEmpty()) {
+            rawSlot = drag.getRawSlots().iterator().next();
+        }
+        writeVarLong(((rawSlot << 1) ^ (rawSlot >> 31)) & 0xFFFFFFFFL);
+        buffer[position++] = (byte) click;
+    }
+
+    private int player(Event event) {
+        HumanEntity player = null;
+        if (event instanceof InventoryInteractEvent interact) {
+            player = interact.getWhoClicked();
+        } else if (event instanceof InventoryOpenEvent open) {
+            player = open.getPlayer();
+        } else if (event instanceof InventoryCloseEvent close) {
+            player = close.getPlayer();
+        }
+        return player == null ? 0 : players.computeIfAbsent(player.getUniqueId(), id -> players.size() + 1);
+    }
+
+    private void startFile() {
+        keys.clear();
+        players.clear();
+        newFile = true;
+        fileBytes = 0;
+        fileStart = System.currentTimeMillis();
+        last = System.nanoTime();
+
+        writeInt(magic);
+        buffer[position++] = (byte) version;
+        writeInt((int) (fileStart >>> 32));
+        writeInt((int) fileStart);
+    }
+
+    /**
+     * Hands the buffered records to the writer thread.
+     */
+    private void submit() {
+        if (position == 0) {
+            return;
+        }
+        byte[] chunk = buffer;
+        int length = position;
+        boolean startsFile = newFile;
+        long started = fileStart;
+
+        fileBytes += length;
+        buffer = new byte[bufferSize];
+        position = 0;
+        newFile = false;
+        writer.execute(() -> append(chunk, length, startsFile, started));
+    }
+
+    private void append(byte[] chunk, int length, boolean startsFile, long started) {
+        try {
+            if (startsFile) {
+                closeFile();
+                out = Files.newOutputStream(directory.resolve(String.format("trace-%013d-%04d%s", started, files++ % 10000, extension)));
+                prune();
+            }
+            if (out != null) {
+                out.write(chunk, 0, length);
+            }
+        } catch (IOException e) {
+            EasyGUI.getInstance().getLogger().log(Level.WARNING, "failed to write trace", e);
+        }
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            EasyGUI.getInstance().getLogger().log(Level.WARNING, "failed to close trace", e);
+        }
+        out = null;
+    }
+
+    private void prune() throws IOException {
+        List<Path> traces = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(path -> path.getFileName().toString().endsWith(extension)).sorted().forEach(traces::add);
+        }
+        for (int i = 0; i < traces.size() - maxFiles; i++) {
+            Files.deleteIfExists(traces.get(i));
+        }
+    }
+
+    private void ensure(int length) {
+        if (position + length > buffer.length) {
+            byte[] grown = new byte[Math.max(buffer.length * 2, position + length)];
+            System.arraycopy(buffer, 0, grown, 0, position);
+            buffer = grown;
+        }
+    }
+
+    private void writeInt(int value) {
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.github.toodles02.easygui.command;
+
+import com.github.toodles02.easygui.EasyGUI;
+import com.github.toodles02.easygui.api.metrics.HandlerWatchdog;
+import com.github.toodles02.easygui.api.metrics.InventoryMetrics;
+import com.github.toodles02.easygui.api.metrics.LatencyHistogram;
+import com.github.toodles02.easygui.api.metrics.MenuStats;
+import com.github.toodles02.easygui.api.trace.TraceRecorder;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code /easygui} command.
+ * <p>
+ * {@code /easygui stats} lists the inventories with the most handler time, {@code /easygui stats on|off} enables or
+ * disables {@link InventoryMetrics} and {@code /easygui stats reset} drops the recorded statistics.
+ * {@code /easygui watchdog <millis>|off} enables the {@link HandlerWatchdog} with a threshold, or disables it.
+ * {@code /easygui trace start|stop} starts or stops the {@link TraceRecorder}, writing into the {@code traces} folder.
+ */
+public class EasyGUICommand implements TabExecutor {
+
+    private static final int shown = 10;
+
+    private static final long traceFileBytes = 16 * 1024 * 1024;
+    private static final int traceFiles = 8;
+
+    /**
+     * Handles the command.
+     */
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 2 && args[0].equalsIgnoreCase("watchdog")) {
+            return watchdog(sender, args[1]);
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("trace")) {
+            return trace(sender, args[1]);
+        }
+        if (args.length == 0 || !args[0].equalsIgnoreCase("stats")) {
+            return false;
+        }
+
+        if (args.length > 1) {
+            switch (args[1].toLowerCase()) {
+                case "on" -> {
+                    InventoryMetrics.setEnabled(true);
+                    sender.sendMessage("EasyGUI metrics enabled.");
+                }
+                case "off" -> {
+                    InventoryMetrics.setEnabled(false);
+                    sender.sendMessage("EasyGUI metrics disabled.");
+                }
+                case "reset" -> {
+                    InventoryMetrics.reset();
+                    sender.sendMessage("EasyGUI metrics reset.");
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<MenuStats> stats = InventoryMetrics.getAll();
+        Map<MenuStats, LatencyHistogram> latencies = new HashMap<>();
+        for (MenuStats menu : stats) {
+            latencies.put(menu, menu.getTotalLatency());
+        }
+        stats.sort(Comparator.comparingLong((MenuStats menu) -> latencies.get(menu).getTotal()).reversed());
+
+        sender.sendMessage("EasyGUI metrics are " + (InventoryMetrics.isEnabled() ? "enabled" : "disabled") + ", " + stats.size() + " inventories recorded.");
+        for (int i = 0; i < Math.min(shown, stats.size()); i++) {
+            MenuStats menu = stats.get(i);
+            LatencyHistogram latency = latencies.get(menu);
+            sender.sendMessage(String.format("%s: %d events, total %s, mean %s, p99 %s, max %s, %d opens, %d closes, %d viewers",
+                    menu.getKey(), latency.getCount(), millis(latency.getTotal()), millis(latency.getMean()),
+                    millis(latency.getPercentile(0.99)), millis(latency.getMax()),
+                    menu.getOpens(), menu.getCloses(), menu.getViewers()));
+        }
+        return true;
+    }
+
+    /**
+     * Completes the arguments of the command.
+     */
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 1) {
+            return List.of("stats", "watchdog", "trace");
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("watchdog")) {
+            return List.of("50", "off");
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("trace")) {
+            return List.of("start", "stop");
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+            return List.of("on", "off", "reset");
+        }
+        return List.of();
+    }
+
+    private static boolean watchdog(CommandSender sender, String argument) {
+        if (argument.equalsIgnoreCase("off")) {
+            HandlerWatchdog.disable();
+            sender.sendMessage("EasyGUI watchdog disabled.");
+            return true;
+        }
+
+        long threshold;
+        try {
+            threshold = Long.parseLong(argument);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (threshold < 1) {
+            return false;
+        }
+        HandlerWatchdog.enable(threshold);
+        sender.sendMessage("EasyGUI watchdog enabled, flagging handlers over " + threshold + "ms.");
+        return true;
+    }
+
+    private static boolean trace(CommandSender sender, String argument) {
+        switch (argument.toLowerCase()) {
+            case "start" -> {
+                Path directory = EasyGUI.getInstance().getDataFolder().toPath().resolve("traces");
+                try {
+                    TraceRecorder.start(directory, traceFileBytes, traceFiles);
+                } catch (IOException e) {
+                    sender.sendMessage("Failed to start the EasyGUI trace: " + e.getMessage());
+                    return true;
+                }
+                sender.sendMessage("EasyGUI trace started, writing to " + directory + ".");
+            }
+            case "stop" -> {
+                TraceRecorder.stop();
+                sender.sendMessage("EasyGUI trace stopped.");
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3fms", nanos / 1_000_000d);
+    }
+
+}